@@ -0,0 +1,82 @@
+package ru.practicum.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Sort;
+import ru.practicum.dto.booking.ResponseBookingDto;
+import ru.practicum.server.booking.Booking;
+import ru.practicum.server.booking.BookingMapper;
+import ru.practicum.server.booking.BookingRepository;
+import ru.practicum.server.booking.BookingState;
+import ru.practicum.server.booking.strategy.AllBookingStrategy;
+import ru.practicum.server.booking.strategy.BookingFetchStateStrategyFactory;
+import ru.practicum.server.booking.strategy.CurrentBookingStrategy;
+import ru.practicum.server.booking.strategy.FutureBookingStrategy;
+import ru.practicum.server.booking.strategy.PastBookingStrategy;
+import ru.practicum.server.booking.strategy.RejectedBookingStrategy;
+import ru.practicum.server.booking.strategy.WaitingBookingStrategy;
+import ru.practicum.server.item.model.Item;
+import ru.practicum.server.user.User;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Выбор стратегии по состоянию и маппинг её результата, как в BookingServiceImpl.findByState.
+ * Репозиторий подменён заглушкой, возвращающей готовый список, поэтому время базы сюда не входит.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingStateBenchmark {
+
+    private static final Sort SORT = Sort.by("start").descending();
+
+    @Param({"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"})
+    private BookingState state;
+
+    @Param({"20", "200"})
+    private int bookings;
+
+    private BookingFetchStateStrategyFactory factory;
+
+    @Setup
+    public void setUp() {
+        User owner = Fixtures.user(1);
+        List<Item> items = IntStream.range(0, 10)
+                .mapToObj(i -> Fixtures.item(i + 1, owner, 3))
+                .toList();
+        List<Booking> result = Fixtures.bookings(bookings, items, Fixtures.user(2));
+        BookingRepository repository = (BookingRepository) Proxy.newProxyInstance(
+                BookingRepository.class.getClassLoader(),
+                new Class<?>[]{BookingRepository.class},
+                (proxy, method, args) -> result);
+        factory = new BookingFetchStateStrategyFactory(Set.of(
+                new AllBookingStrategy(repository),
+                new CurrentBookingStrategy(repository),
+                new PastBookingStrategy(repository),
+                new FutureBookingStrategy(repository),
+                new WaitingBookingStrategy(repository),
+                new RejectedBookingStrategy(repository)));
+    }
+
+    @Benchmark
+    public List<ResponseBookingDto> findByState() {
+        return BookingMapper.mapToResponseBookingDto(factory.findStrategy(state).getBookings(2L, SORT));
+    }
+}
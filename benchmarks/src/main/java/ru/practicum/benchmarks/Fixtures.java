@@ -0,0 +1,96 @@
+package ru.practicum.benchmarks;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import ru.practicum.server.booking.Booking;
+import ru.practicum.server.booking.BookingStatus;
+import ru.practicum.server.item.model.Comment;
+import ru.practicum.server.item.model.Item;
+import ru.practicum.server.request.ItemRequest;
+import ru.practicum.server.user.User;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Детерминированные наборы сущностей для бенчмарков, без обращения к базе.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class Fixtures {
+
+    static final LocalDateTime NOW = LocalDateTime.of(2025, 6, 1, 12, 0);
+
+    static User user(long id) {
+        User user = new User("user" + id, "user" + id + "@mail.ru");
+        user.setId(id);
+        return user;
+    }
+
+    static Item item(long id, User owner, int comments) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName("Дрель " + id);
+        item.setDescription("Аккумуляторная дрель с набором бит, модель " + id);
+        item.setAvailable(true);
+        item.setOwner(owner);
+        item.setBookings(new ArrayList<>());
+        List<Comment> itemComments = new ArrayList<>(comments);
+        for (int i = 0; i < comments; i++) {
+            Comment comment = new Comment();
+            comment.setId(id * 1000 + i);
+            comment.setText("Отличная вещь, пользовался " + i + " раз");
+            comment.setAuthorName("user" + i);
+            comment.setItem(item);
+            comment.setCreated(NOW.minusDays(i));
+            itemComments.add(comment);
+        }
+        item.setComments(itemComments);
+        return item;
+    }
+
+    /**
+     * Бронирования равномерно распределены вокруг {@link #NOW}: половина в прошлом, половина в будущем.
+     */
+    static List<Booking> bookings(int count, List<Item> items, User booker) {
+        List<Booking> bookings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Item item = items.get(i % items.size());
+            LocalDateTime start = NOW.plusHours(2L * (i - count / 2));
+            Booking booking = new Booking(start, start.plusHours(1), item, booker);
+            booking.setId((long) i + 1);
+            booking.setStatus(BookingStatus.values()[i % BookingStatus.values().length]);
+            item.getBookings().add(booking);
+            bookings.add(booking);
+        }
+        return bookings;
+    }
+
+    /**
+     * Заполняет сводку бронирований вещи так же, как её поддерживает сервер при создании бронирований.
+     */
+    static void summarize(Item item) {
+        for (Booking booking : item.getBookings()) {
+            if (booking.getEnd().isBefore(NOW)
+                    && (item.getLastBooking() == null || booking.getEnd().isAfter(item.getLastBooking().getEnd()))) {
+                item.setLastBooking(booking);
+            }
+            if (booking.getStart().isAfter(NOW)
+                    && (item.getNextBooking() == null || booking.getStart().isBefore(item.getNextBooking().getStart()))) {
+                item.setNextBooking(booking);
+            }
+        }
+    }
+
+    static ItemRequest request(long id, User author, List<Item> items) {
+        ItemRequest request = new ItemRequest();
+        request.setId(id);
+        request.setUser(author);
+        request.setDescription("Нужна дрель на выходные " + id);
+        request.setCreated(NOW.minusHours(id).toInstant(ZoneOffset.UTC));
+        request.setItems(items);
+        items.forEach(item -> item.setRequest(request));
+        return request;
+    }
+}
@@ -0,0 +1,111 @@
+package ru.practicum.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.server.ShareItApp;
+import ru.practicum.server.item.ItemRepository;
+import ru.practicum.server.item.model.Item;
+import ru.practicum.server.user.User;
+import ru.practicum.server.user.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Массовый импорт пользователей и их вещей через репозитории сервера на встроенной H2 в режиме PostgreSQL.
+ * <p>
+ * {@code batchSize=1} воспроизводит прежнее поведение: при IDENTITY Hibernate отправлял каждую строку
+ * отдельным запросом, чтобы узнать её идентификатор. {@code batchSize=50} - текущие настройки:
+ * идентификаторы берутся из последовательностей диапазонами (pooled-lo), строки уходят пачками.
+ * Против настоящего PostgreSQL разница больше, чем на встроенной базе, так как каждый запрос - это обмен по сети.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImportBenchmark {
+
+    private static final String EMBEDDED_DATABASE_URL =
+            "jdbc:h2:mem:shareit-import;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+
+    @Param({"1", "50"})
+    private int batchSize;
+
+    @Param({"200"})
+    private int users;
+
+    @Param({"5"})
+    private int itemsPerUser;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private ItemRepository itemRepository;
+    private TransactionTemplate transactionTemplate;
+    private long imported;
+
+    @Setup
+    public void setUp() {
+        // параметры командной строки перекрывают application.properties сервера
+        context = new SpringApplicationBuilder(ShareItApp.class).run(
+                "--spring.main.web-application-type=none",
+                "--spring.datasource.url=" + EMBEDDED_DATABASE_URL,
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.hibernate.SQL=OFF",
+                "--logging.level.org.hibernate.orm.jdbc.bind=OFF",
+                "--logging.level.org.springframework.transaction.interceptor=OFF",
+                "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=OFF");
+        userRepository = context.getBean(UserRepository.class);
+        itemRepository = context.getBean(ItemRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int importUsersWithItems() {
+        List<User> newUsers = new ArrayList<>(users);
+        List<Item> newItems = new ArrayList<>(users * itemsPerUser);
+        for (int i = 0; i < users; i++) {
+            long number = imported++;
+            User user = new User("user" + number, "import" + number + "@mail.ru");
+            newUsers.add(user);
+            for (int j = 0; j < itemsPerUser; j++) {
+                Item item = new Item();
+                item.setName("Дрель " + number + "-" + j);
+                item.setDescription("Аккумуляторная дрель с набором бит, модель " + j);
+                item.setAvailable(true);
+                item.setOwner(user);
+                newItems.add(item);
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            userRepository.saveAll(newUsers);
+            itemRepository.saveAll(newItems);
+        });
+        return newUsers.size() + newItems.size();
+    }
+}
@@ -0,0 +1,98 @@
+package ru.practicum.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.dto.booking.ResponseBookingDto;
+import ru.practicum.dto.item.CommentDto;
+import ru.practicum.dto.item.ItemDto;
+import ru.practicum.dto.request.ItemRequestDto;
+import ru.practicum.server.booking.Booking;
+import ru.practicum.server.booking.BookingMapper;
+import ru.practicum.server.item.CommentMapper;
+import ru.practicum.server.item.ItemMapper;
+import ru.practicum.server.item.model.Comment;
+import ru.practicum.server.item.model.Item;
+import ru.practicum.server.request.ItemRequest;
+import ru.practicum.server.request.ItemRequestMapper;
+import ru.practicum.server.user.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Маппинг сущностей в DTO для списков размером со страницу ответа.
+ * Запуск с профилировщиком аллокаций: {@code java -jar benchmarks/target/benchmarks.jar MapperBenchmark -prof gc}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"20", "200"})
+    private int listSize;
+
+    @Param({"0", "10"})
+    private int commentsPerItem;
+
+    private List<Booking> bookings;
+    private List<Item> items;
+    private List<Comment> comments;
+    private List<ItemRequest> requests;
+
+    @Setup
+    public void setUp() {
+        User owner = Fixtures.user(1);
+        User booker = Fixtures.user(2);
+        items = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            items.add(Fixtures.item(i + 1, owner, commentsPerItem));
+        }
+        bookings = Fixtures.bookings(listSize, items, booker);
+        comments = items.stream()
+                .flatMap(item -> item.getComments().stream())
+                .toList();
+        requests = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            // по одному-три отклика на запрос, как в типичной выдаче /requests
+            int from = i % items.size();
+            requests.add(Fixtures.request(i + 1, booker, items.subList(from, Math.min(from + 1 + i % 3, items.size()))));
+        }
+    }
+
+    @Benchmark
+    public List<ResponseBookingDto> bookingsToResponseDto() {
+        return BookingMapper.mapToResponseBookingDto(bookings);
+    }
+
+    @Benchmark
+    public List<ItemDto> itemsToItemDto() {
+        List<ItemDto> dtos = new ArrayList<>(items.size());
+        for (Item item : items) {
+            dtos.add(ItemMapper.mapToItemDto(item));
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public List<CommentDto> commentsToDto() {
+        return CommentMapper.mapToDto(comments);
+    }
+
+    @Benchmark
+    public List<ItemRequestDto> requestsToDto() {
+        return ItemRequestMapper.mapToItemRequestDto(requests);
+    }
+}
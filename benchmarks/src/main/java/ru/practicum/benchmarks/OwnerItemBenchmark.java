@@ -0,0 +1,55 @@
+package ru.practicum.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.dto.item.OwnerItemDto;
+import ru.practicum.server.item.CommentMapper;
+import ru.practicum.server.item.ItemMapper;
+import ru.practicum.server.item.model.Item;
+import ru.practicum.server.user.User;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Представление вещи для владельца ({@link ItemMapper#mapToOwnerItemDto(Item, List)}) по сводке бронирований,
+ * хранящейся в вещи: время не должно зависеть от числа бронирований.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OwnerItemBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int bookingsPerItem;
+
+    @Param({"0", "10"})
+    private int comments;
+
+    private Item item;
+
+    @Setup
+    public void setUp() {
+        User owner = Fixtures.user(1);
+        item = Fixtures.item(1, owner, comments);
+        Fixtures.bookings(bookingsPerItem, List.of(item), Fixtures.user(2));
+        Fixtures.summarize(item);
+    }
+
+    @Benchmark
+    public OwnerItemDto lastAndNextBookings() {
+        return ItemMapper.mapToOwnerItemDto(item, CommentMapper.mapToDto(item.getComments()));
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.dto.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Результат обработки одной записи пакетного запроса: либо бронирование, либо причина отказа.
+ * {@code index} - позиция записи в теле запроса.
+ */
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingBatchResultDto {
+    private int index;
+    private ResponseBookingDto booking;
+    private String error;
+
+    public static BookingBatchResultDto success(int index, ResponseBookingDto booking) {
+        return new BookingBatchResultDto(index, booking, null);
+    }
+
+    public static BookingBatchResultDto failure(int index, String error) {
+        return new BookingBatchResultDto(index, null, error);
+    }
+}
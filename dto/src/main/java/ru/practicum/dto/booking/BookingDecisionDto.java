@@ -0,0 +1,17 @@
+package ru.practicum.dto.booking;
+
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingDecisionDto {
+    @Positive
+    private long bookingId;
+    private boolean approved;
+}
@@ -1,5 +1,6 @@
 package ru.practicum.dto.booking;
 
+import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -16,5 +17,6 @@ public class BookingDto {
     private Long id;
     private LocalDateTime start;
     private LocalDateTime end;
+    @Positive
     private long itemId;
 }
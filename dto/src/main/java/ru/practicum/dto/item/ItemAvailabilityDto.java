@@ -0,0 +1,35 @@
+package ru.practicum.dto.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Свободные и занятые интервалы вещи в периоде [from, to). Недоступная для бронирования вещь
+ * (available = false) не имеет свободных интервалов.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemAvailabilityDto {
+    private long itemId;
+    private boolean available;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<Interval> free;
+    private List<Interval> occupied;
+
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Interval {
+        private LocalDateTime start;
+        private LocalDateTime end;
+    }
+}
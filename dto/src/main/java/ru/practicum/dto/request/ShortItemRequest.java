@@ -1,5 +0,0 @@
-package ru.practicum.dto.request;
-
-public interface ShortItemRequest {
-    String getDescription();
-}
@@ -4,39 +4,84 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
+import ru.practicum.dto.booking.BookingDecisionDto;
 import ru.practicum.dto.booking.BookingDto;
 import ru.practicum.gateway.configuration.BaseClient;
+import ru.practicum.gateway.configuration.ResponseCache;
 
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String URL = "/bookings";
+    /**
+     * Бронирования входят в карточку вещи (последнее и следующее), поэтому их изменение сбрасывает карточки вещей.
+     */
+    private static final String ITEMS_URL = "/items/";
 
     @Value("${shareit-server.url}")
     private String host;
 
-    public BookingClient(RestTemplate rest) {
-        super(rest);
+    public BookingClient(RestTemplate rest, ResponseCache cache) {
+        super(rest, cache);
     }
 
     public ResponseEntity<Object> create(long id, BookingDto dto) {
-        return post(host + URL, id, dto);
+        ResponseEntity<Object> response = post(host + URL, id, dto);
+        cache.evictCollection(host + ITEMS_URL);
+        return response;
     }
 
     public ResponseEntity<Object> approve(long userId, long bookingId, boolean approved) {
-        return patch(host + URL + "/" + bookingId + "?approved={approved}",
+        ResponseEntity<Object> response = patch(host + URL + "/" + bookingId + "?approved={approved}",
                 userId,
                 Map.of("approved", approved),
                 null);
+        cache.evictCollection(host + ITEMS_URL);
+        return response;
+    }
+
+    public ResponseEntity<Object> createBatch(long userId, List<BookingDto> dtos) {
+        ResponseEntity<Object> response = post(host + URL + "/batch", userId, dtos);
+        cache.evictCollection(host + ITEMS_URL);
+        return response;
+    }
+
+    public ResponseEntity<Object> approveBatch(long userId, List<BookingDecisionDto> decisions) {
+        ResponseEntity<Object> response = patch(host + URL + "/batch", userId, decisions);
+        cache.evictCollection(host + ITEMS_URL);
+        return response;
     }
 
     public ResponseEntity<Object> findById(long userId, long bookingId) {
         return get(host + URL + "/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> findByState(long userId, BookingState state) {
-        return get(host + URL + "?state={state}", userId, Map.of("state", state));
+    public ResponseEntity<Object> findByState(long userId, BookingState state, String from, Integer size) {
+        Map<String, Object> parameters = pageParameters(state, from, size);
+        return get(host + URL + query(parameters), userId, parameters);
+    }
+
+    public ResponseEntity<Object> findForOwnerByState(long userId, BookingState state, String from, Integer size) {
+        Map<String, Object> parameters = pageParameters(state, from, size);
+        return get(host + URL + "/owner" + query(parameters), userId, parameters);
+    }
+
+    private static Map<String, Object> pageParameters(BookingState state, String from, Integer size) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("state", state);
+        if (from != null) parameters.put("from", from);
+        if (size != null) parameters.put("size", size);
+        return parameters;
+    }
+
+    private static String query(Map<String, Object> parameters) {
+        return parameters.keySet().stream()
+                .map(name -> name + "={" + name + "}")
+                .collect(Collectors.joining("&", "?", ""));
     }
 
 }
@@ -1,10 +1,19 @@
 package ru.practicum.gateway.booking;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.dto.booking.BookingDecisionDto;
 import ru.practicum.dto.booking.BookingDto;
 
+import java.util.List;
+
 
 @RestController
 @RequestMapping(path = "/bookings")
@@ -17,6 +26,20 @@ public class BookingController {
         return client.create(userid, dto);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Object> createBatch(@RequestHeader("X-Sharer-User-Id") long userId,
+                                              @RequestBody @NotEmpty @Size(max = 500)
+                                              List<@NotNull @Valid BookingDto> dtos) {
+        return client.createBatch(userId, dtos);
+    }
+
+    @PatchMapping("/batch")
+    public ResponseEntity<Object> approveBatch(@RequestHeader("X-Sharer-User-Id") long userId,
+                                               @RequestBody @NotEmpty @Size(max = 500)
+                                               List<@NotNull @Valid BookingDecisionDto> decisions) {
+        return client.approveBatch(userId, decisions);
+    }
+
     @PatchMapping("/{bookingId}")
     public ResponseEntity<Object> approve(@RequestHeader("X-Sharer-User-Id") long userId,
                                           @PathVariable long bookingId,
@@ -31,13 +54,17 @@ public class BookingController {
 
     @GetMapping
     public ResponseEntity<Object> findByState(@RequestHeader("X-Sharer-User-Id") long userid,
-                                              @RequestParam(required = false, defaultValue = "ALL") BookingState state) {
-        return client.findByState(userid, state);
+                                              @RequestParam(required = false, defaultValue = "ALL") BookingState state,
+                                              @RequestParam(required = false) String from,
+                                              @RequestParam(required = false) @Positive @Max(100) Integer size) {
+        return client.findByState(userid, state, from, size);
     }
 
     @GetMapping("/owner")
     public ResponseEntity<Object> findForOwnerByState(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                      @RequestParam(required = false, defaultValue = "ALL") BookingState state) {
-        return client.findByState(userId, state);
+                                                      @RequestParam(required = false, defaultValue = "ALL") BookingState state,
+                                                      @RequestParam(required = false) String from,
+                                                      @RequestParam(required = false) @Positive @Max(100) Integer size) {
+        return client.findForOwnerByState(userId, state, from, size);
     }
 }
@@ -1,11 +1,15 @@
 package ru.practicum.gateway.configuration;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
@@ -13,10 +17,15 @@ import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
 
 public class BaseClient {
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive", "transfer-encoding",
+            "te", "trailer", "upgrade", "proxy-authenticate", "proxy-authorization", "content-length");
+
     protected final RestTemplate rest;
+    protected final ResponseCache cache;
 
-    public BaseClient(RestTemplate rest) {
+    public BaseClient(RestTemplate rest, ResponseCache cache) {
         this.rest = rest;
+        this.cache = cache;
     }
 
     protected ResponseEntity<Object> get(String path) {
@@ -31,6 +40,40 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
+    /**
+     * GET через кэш ответов: сохранённый ETag отправляется в If-None-Match,
+     * и при ответе 304 клиенту возвращается тело из кэша.
+     */
+    protected ResponseEntity<Object> getCached(String path, @Nullable Long userId) {
+        ResponseCache.Key key = new ResponseCache.Key(path, userId);
+        long generation = cache.generation(path);
+        ResponseCache.Entry cached = cache.get(key);
+        HttpHeaders requestHeaders = defaultHeaders(userId);
+        if (cached != null) {
+            requestHeaders.setIfNoneMatch(cached.etag());
+        }
+
+        ResponseEntity<byte[]> shareitServerResponse;
+        try {
+            shareitServerResponse = rest.exchange(path, HttpMethod.GET, new HttpEntity<>(requestHeaders), byte[].class);
+        } catch (HttpStatusCodeException e) {
+            cache.evict(key);
+            return prepareGatewayResponse(e.getStatusCode(), e.getResponseHeaders(), e.getResponseBodyAsByteArray());
+        }
+
+        HttpHeaders headers = shareitServerResponse.getHeaders();
+        byte[] body = shareitServerResponse.getBody();
+        if (cached != null && shareitServerResponse.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+            return prepareGatewayResponse(HttpStatus.OK, cached.headers(), cached.body());
+        }
+        if (shareitServerResponse.getStatusCode() == HttpStatus.OK && headers.getETag() != null && body != null) {
+            cache.put(key, new ResponseCache.Entry(generation, headers.getETag(), headers, body));
+        } else {
+            cache.evict(key);
+        }
+        return prepareGatewayResponse(shareitServerResponse.getStatusCode(), headers, body);
+    }
+
     protected <T> ResponseEntity<Object> post(String path, T body) {
         return post(path, null, null, body);
     }
@@ -82,17 +125,18 @@ public class BaseClient {
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
 
-        ResponseEntity<Object> shareitServerResponse;
+        ResponseEntity<byte[]> shareitServerResponse;
         try {
             if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class, parameters);
             } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class);
             }
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            return prepareGatewayResponse(e.getStatusCode(), e.getResponseHeaders(), e.getResponseBodyAsByteArray());
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        return prepareGatewayResponse(shareitServerResponse.getStatusCode(), shareitServerResponse.getHeaders(),
+                shareitServerResponse.getBody());
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -105,17 +149,27 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+    /**
+     * Тело ответа сервера передаётся клиенту как есть, без повторной десериализации и сериализации JSON.
+     */
+    private static ResponseEntity<Object> prepareGatewayResponse(HttpStatusCode status,
+                                                                 @Nullable HttpHeaders serverHeaders,
+                                                                 @Nullable byte[] body) {
+        HttpHeaders headers = new HttpHeaders();
+        if (serverHeaders != null) {
+            serverHeaders.forEach((name, values) -> {
+                if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                    headers.put(name, values);
+                }
+            });
         }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(status).headers(headers);
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+        if (body != null && body.length > 0) {
+            return responseBuilder.body(body);
         }
 
         return responseBuilder.build();
     }
-}
\ No newline at end of file
+}
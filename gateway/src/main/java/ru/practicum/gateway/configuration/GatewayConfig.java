@@ -1,23 +1,104 @@
 package ru.practicum.gateway.configuration;
 
-import org.apache.hc.client5.http.classic.HttpClient;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class GatewayConfig {
 
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient shareitServerHttpClient(
+            @Value("${shareit-server.pool.max-total}") int maxTotal,
+            @Value("${shareit-server.pool.max-per-route}") int maxPerRoute,
+            @Value("${shareit-server.pool.acquire-timeout}") Duration acquireTimeout,
+            @Value("${shareit-server.connect-timeout}") Duration connectTimeout,
+            @Value("${shareit-server.read-timeout}") Duration readTimeout,
+            @Value("${shareit-server.keep-alive}") Duration keepAlive) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(5))
+                        .build())
+                .build();
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.of(acquireTimeout))
+                .setResponseTimeout(Timeout.of(readTimeout))
+                .setDefaultKeepAlive(keepAlive.toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(keepAlive))
+                .build();
+    }
+
+    /**
+     * Отдельный пул для потоковых ответов (лента запросов): соединение занято всё время подписки,
+     * и подписчики не должны занимать соединения обычных запросов. Таймаут чтения должен быть больше
+     * интервала пинга ленты на сервере.
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient shareitServerStreamClient(
+            @Value("${shareit-server.stream.max-connections}") int maxConnections,
+            @Value("${shareit-server.pool.acquire-timeout}") Duration acquireTimeout,
+            @Value("${shareit-server.connect-timeout}") Duration connectTimeout,
+            @Value("${shareit-server.read-timeout}") Duration readTimeout) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .build())
+                .build();
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.of(acquireTimeout))
+                .setResponseTimeout(Timeout.of(readTimeout))
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .build();
+    }
+
+    /**
+     * ETag ответа сервера передаётся клиенту, и фильтр сверяет с ним If-None-Match клиента, отвечая 304.
+     */
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> etagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/items/*", "/users/*", "/requests/*");
+        return registration;
+    }
+
     @Bean
-    public RestTemplate restTemplate() {
-        HttpClient httpClient = HttpClients.createDefault();
-        HttpComponentsClientHttpRequestFactory requestFactory =
-                new HttpComponentsClientHttpRequestFactory(httpClient);
-
-        RestTemplate restTemplate = new RestTemplate();
-        restTemplate.setRequestFactory(requestFactory);
-        return restTemplate;
+    public RestTemplate restTemplate(@Qualifier("shareitServerHttpClient") CloseableHttpClient shareitServerHttpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(shareitServerHttpClient));
     }
 }
@@ -0,0 +1,101 @@
+package ru.practicum.gateway.configuration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ответы сервера на GET-запросы карточек вместе с их ETag. Записи всегда перепроверяются
+ * условным запросом (If-None-Match), поэтому устаревшая запись не попадёт к клиенту.
+ * Экономится только передача тела: сервер всё равно выполняет запрос и считает ETag по телу.
+ * <p>
+ * Ответы сгруппированы по пути карточки, поэтому сброс карточки удаляет одну запись со всеми пользователями.
+ * Сброс всех карточек коллекции лишь увеличивает её поколение: ответы прежних поколений считаются
+ * отсутствующими и вытесняются по размеру, без обхода кэша.
+ */
+@Component
+public class ResponseCache {
+
+    private final Cache<String, Map<Long, Entry>> cards;
+    private final ConcurrentMap<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public ResponseCache(@Value("${shareit-gateway.response-cache.max-entries}") long maxEntries) {
+        this.cards = Caffeine.newBuilder()
+                .maximumWeight(maxEntries)
+                .weigher((String path, Map<Long, Entry> responses) -> responses.size())
+                .build();
+    }
+
+    /**
+     * Текущее поколение коллекции, к которой относится путь. Снимается до запроса к серверу,
+     * чтобы ответ, полученный до сброса коллекции, не считался свежим.
+     */
+    public long generation(String path) {
+        return generationOf(collectionOf(path)).get();
+    }
+
+    @Nullable
+    public Entry get(Key key) {
+        Map<Long, Entry> responses = cards.getIfPresent(key.path());
+        Entry entry = responses == null ? null : responses.get(key.userId());
+        return entry != null && entry.generation() == generation(key.path()) ? entry : null;
+    }
+
+    public void put(Key key, Entry entry) {
+        cards.asMap().compute(key.path(), (path, responses) -> {
+            Map<Long, Entry> updated = responses == null ? new HashMap<>() : new HashMap<>(responses);
+            updated.put(key.userId(), entry);
+            return updated;
+        });
+    }
+
+    public void evict(Key key) {
+        cards.asMap().computeIfPresent(key.path(), (path, responses) -> {
+            if (!responses.containsKey(key.userId())) return responses;
+            Map<Long, Entry> updated = new HashMap<>(responses);
+            updated.remove(key.userId());
+            return updated.isEmpty() ? null : updated;
+        });
+    }
+
+    /**
+     * Сбрасывает карточку для всех пользователей.
+     */
+    public void evictPath(String path) {
+        cards.invalidate(path);
+    }
+
+    /**
+     * Сбрасывает все карточки коллекции; collectionPath заканчивается на "/", например {@code host + "/items/"}.
+     */
+    public void evictCollection(String collectionPath) {
+        generationOf(collectionPath).incrementAndGet();
+    }
+
+    public void evictAll() {
+        cards.invalidateAll();
+    }
+
+    private AtomicLong generationOf(String collectionPath) {
+        return generations.computeIfAbsent(collectionPath, path -> new AtomicLong());
+    }
+
+    private static String collectionOf(String path) {
+        return path.substring(0, path.lastIndexOf('/') + 1);
+    }
+
+    public record Key(String path, @Nullable Long userId) {
+    }
+
+    public record Entry(long generation, String etag, HttpHeaders headers, byte[] body) {
+    }
+}
@@ -7,18 +7,23 @@ import org.springframework.web.client.RestTemplate;
 import ru.practicum.dto.item.ItemDto;
 import ru.practicum.dto.item.NewCommentDto;
 import ru.practicum.gateway.configuration.BaseClient;
+import ru.practicum.gateway.configuration.ResponseCache;
 
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String URL = "/items";
+    private static final String REQUESTS_URL = "/requests";
 
     @Value("${shareit-server.url}")
     private String host;
 
-    public ItemClient(RestTemplate rest) {
-        super(rest);
+    public ItemClient(RestTemplate rest, ResponseCache cache) {
+        super(rest, cache);
     }
 
     public ResponseEntity<Object> findAll(long userId) {
@@ -26,26 +31,55 @@ public class ItemClient extends BaseClient {
     }
 
     public ResponseEntity<Object> findById(long userId, long itemId) {
-        return get(host + URL + "/" + itemId, userId);
+        return getCached(host + URL + "/" + itemId, userId);
+    }
+
+    public ResponseEntity<Object> findAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        if (from != null) parameters.put("from", from);
+        if (to != null) parameters.put("to", to);
+        return get(host + URL + "/" + itemId + "/availability" + query(parameters), null, parameters);
     }
 
     public ResponseEntity<Object> create(long userId, ItemDto dto) {
-        return post(host + URL, userId, dto);
+        ResponseEntity<Object> response = post(host + URL, userId, dto);
+        if (dto.getRequestId() != null) {
+            cache.evictPath(host + REQUESTS_URL + "/" + dto.getRequestId());
+        }
+        return response;
     }
 
     public ResponseEntity<Object> update(long userId, ItemDto itemDto, long itemId) {
-        return patch(host + URL + "/" + itemId, userId, itemDto);
+        ResponseEntity<Object> response = patch(host + URL + "/" + itemId, userId, itemDto);
+        cache.evictPath(host + URL + "/" + itemId);
+        return response;
     }
 
     public void delete(long userId, long itemId) {
         delete(host + URL + "/" + itemId, userId);
+        cache.evictPath(host + URL + "/" + itemId);
     }
 
-    public ResponseEntity<Object> search(String text) {
-        return get(host + URL + "/search?text={text}", 1L, Map.of("text", text));
+    public ResponseEntity<Object> search(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("text", text);
+        if (start != null) parameters.put("start", start);
+        if (end != null) parameters.put("end", end);
+        parameters.put("from", from);
+        parameters.put("size", size);
+        return get(host + URL + "/search" + query(parameters), 1L, parameters);
     }
 
     public ResponseEntity<Object> createComment(long userId, long itemId, NewCommentDto dto) {
-        return post(host + URL + "/" + itemId + "/comment", userId, dto);
+        ResponseEntity<Object> response = post(host + URL + "/" + itemId + "/comment", userId, dto);
+        cache.evictPath(host + URL + "/" + itemId);
+        return response;
+    }
+
+    private static String query(Map<String, Object> parameters) {
+        if (parameters.isEmpty()) return "";
+        return parameters.keySet().stream()
+                .map(name -> name + "={" + name + "}")
+                .collect(Collectors.joining("&", "?", ""));
     }
 }
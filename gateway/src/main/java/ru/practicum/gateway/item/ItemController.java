@@ -1,12 +1,17 @@
 package ru.practicum.gateway.item;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.dto.item.ItemDto;
 import ru.practicum.dto.item.NewCommentDto;
 
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/items")
@@ -25,6 +30,15 @@ public class ItemController {
         return client.findById(userId, itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> findAvailability(@PathVariable long itemId,
+                                                   @RequestParam(required = false)
+                                                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                   @RequestParam(required = false)
+                                                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return client.findAvailability(itemId, from, to);
+    }
+
     @PostMapping
     public ResponseEntity<Object> create(@RequestHeader("X-Sharer-User-Id") long userId, @Valid @RequestBody ItemDto itemDto) {
         return client.create(userId, itemDto);
@@ -42,8 +56,14 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> search(@RequestParam String text) {
-        return client.search(text);
+    public ResponseEntity<Object> search(@RequestParam String text,
+                                         @RequestParam(required = false)
+                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                         @RequestParam(required = false)
+                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                                         @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                         @RequestParam(defaultValue = "20") @Positive @Max(100) int size) {
+        return client.search(text, start, end, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
@@ -1,12 +1,33 @@
 package ru.practicum.gateway.request;
 
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.ConnectionRequestTimeoutException;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.dto.request.NewRequestDto;
 import ru.practicum.gateway.configuration.BaseClient;
+import ru.practicum.gateway.configuration.ResponseCache;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Slf4j
 @Service
 public class ItemRequestClient extends BaseClient {
     private static final String URL = "/requests";
@@ -14,23 +35,100 @@ public class ItemRequestClient extends BaseClient {
     @Value("${shareit-server.url}")
     private String host;
 
-    public ItemRequestClient(RestTemplate rest) {
-        super(rest);
+    private final CloseableHttpClient streamClient;
+
+    public ItemRequestClient(RestTemplate rest, ResponseCache cache,
+                             @Qualifier("shareitServerStreamClient") CloseableHttpClient streamClient) {
+        super(rest, cache);
+        this.streamClient = streamClient;
     }
 
     public ResponseEntity<Object> create(long userId, NewRequestDto dto) {
         return post(host + URL, userId, dto);
     }
 
-    public ResponseEntity<Object> findUserItemRequests(long userId) {
-        return get(host + URL, userId);
+    public ResponseEntity<Object> findUserItemRequests(long userId, String from, Integer size) {
+        Map<String, Object> parameters = pageParameters(from, size);
+        return get(host + URL + query(parameters), userId, parameters);
     }
 
-    public ResponseEntity<Object> findAllItemRequests(long userId) {
-        return get(host + URL + "/all", userId);
+    public ResponseEntity<Object> findAllItemRequests(long userId, String from, Integer size) {
+        Map<String, Object> parameters = pageParameters(from, size);
+        return get(host + URL + "/all" + query(parameters), userId, parameters);
     }
 
     public ResponseEntity<Object> findById(long requestId) {
-        return get(host + URL + "/" + requestId);
+        return getCached(host + URL + "/" + requestId, null);
+    }
+
+    /**
+     * Лента передаётся клиенту по мере поступления событий, поэтому запрос идёт мимо RestTemplate,
+     * который читает тело ответа целиком. Если соединения для лент закончились, клиент получает 503,
+     * если сервер недоступен или оборвал ответ до начала ленты - 502.
+     */
+    public ResponseEntity<StreamingResponseBody> stream(long userId, @Nullable String lastEventId) {
+        HttpGet request = new HttpGet(host + URL + "/stream");
+        request.setHeader("X-Sharer-User-Id", userId);
+        request.setHeader(HttpHeaders.ACCEPT, MediaType.TEXT_EVENT_STREAM_VALUE);
+        if (lastEventId != null) request.setHeader("Last-Event-ID", lastEventId);
+
+        ClassicHttpResponse response;
+        try {
+            response = streamClient.executeOpen(null, request, null);
+        } catch (ConnectionRequestTimeoutException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (IOException e) {
+            log.warn("Не удалось подключиться к ленте запросов сервера: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY).build();
+        }
+
+        if (response.getCode() != HttpStatus.OK.value()) {
+            try (response) {
+                ResponseEntity.BodyBuilder error = ResponseEntity.status(response.getCode());
+                if (response.getEntity() == null) return error.build();
+                if (response.getEntity().getContentType() != null) {
+                    error.contentType(MediaType.parseMediaType(response.getEntity().getContentType()));
+                }
+                byte[] body = EntityUtils.toByteArray(response.getEntity());
+                return error.body(out -> out.write(body));
+            } catch (IOException e) {
+                log.warn("Не удалось прочитать ответ сервера на подписку на ленту запросов: {}", e.getMessage());
+                return ResponseEntity.status(HttpStatus.BAD_GATEWAY).build();
+            }
+        }
+
+        StreamingResponseBody events = out -> {
+            // поток не закрывается сам: закрытие дочитывало бы бесконечный ответ, соединение разрывается отменой
+            try {
+                InputStream in = response.getEntity().getContent();
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                    out.flush();
+                }
+            } finally {
+                request.cancel();
+                response.close();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .cacheControl(CacheControl.noCache())
+                .body(events);
+    }
+
+    private static Map<String, Object> pageParameters(String from, Integer size) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        if (from != null) parameters.put("from", from);
+        if (size != null) parameters.put("size", size);
+        return parameters;
+    }
+
+    private static String query(Map<String, Object> parameters) {
+        if (parameters.isEmpty()) return "";
+        return parameters.keySet().stream()
+                .map(name -> name + "={" + name + "}")
+                .collect(Collectors.joining("&", "?", ""));
     }
 }
@@ -1,8 +1,13 @@
 package ru.practicum.gateway.request;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
+import org.apache.catalina.connector.ClientAbortException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.AsyncRequestNotUsableException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.dto.request.NewRequestDto;
 
 
@@ -19,17 +24,35 @@ public class ItemRequestController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> findUserItemRequests(@RequestHeader("X-Sharer-User-Id") long userId) {
-        return client.findUserItemRequests(userId);
+    public ResponseEntity<Object> findUserItemRequests(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                       @RequestParam(required = false) String from,
+                                                       @RequestParam(required = false) @Positive @Max(100) Integer size) {
+        return client.findUserItemRequests(userId, from, size);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> findAllItemRequests(@RequestHeader("X-Sharer-User-Id") long userId) {
-        return client.findAllItemRequests(userId);
+    public ResponseEntity<Object> findAllItemRequests(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                      @RequestParam(required = false) String from,
+                                                      @RequestParam(required = false) @Positive @Max(100) Integer size) {
+        return client.findAllItemRequests(userId, from, size);
+    }
+
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> stream(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                        @RequestHeader(value = "Last-Event-ID", required = false)
+                                                        String lastEventId) {
+        return client.stream(userId, lastEventId);
     }
 
     @GetMapping("/{requestId}")
     public ResponseEntity<Object> findById(@PathVariable("requestId") long requestId) {
         return client.findById(requestId);
     }
+
+    /**
+     * Клиент ленты отключился: ответ уже начат, и отвечать ему нечем.
+     */
+    @ExceptionHandler({AsyncRequestNotUsableException.class, ClientAbortException.class})
+    public void streamClosed() {
+    }
 }
@@ -6,6 +6,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import ru.practicum.dto.user.UserDto;
 import ru.practicum.gateway.configuration.BaseClient;
+import ru.practicum.gateway.configuration.ResponseCache;
 
 
 @Service
@@ -15,8 +16,8 @@ public class UserClient extends BaseClient {
     @Value("${shareit-server.url}")
     private String host;
 
-    public UserClient(RestTemplate rest) {
-        super(rest);
+    public UserClient(RestTemplate rest, ResponseCache cache) {
+        super(rest, cache);
     }
 
     public ResponseEntity<Object> findAll() {
@@ -24,7 +25,7 @@ public class UserClient extends BaseClient {
     }
 
     public ResponseEntity<Object> findById(long id) {
-        return get(host + URL + "/" + id);
+        return getCached(host + URL + "/" + id, null);
     }
 
     public ResponseEntity<Object> create(UserDto userDto) {
@@ -32,10 +33,16 @@ public class UserClient extends BaseClient {
     }
 
     public ResponseEntity<Object> update(long id, UserDto userDto) {
-        return patch(host + URL + "/" + id, userDto);
+        ResponseEntity<Object> response = patch(host + URL + "/" + id, userDto);
+        cache.evictPath(host + URL + "/" + id);
+        return response;
     }
 
+    /**
+     * Вместе с пользователем удаляются его вещи и запросы, поэтому сбрасывается весь кэш.
+     */
     public void delete(long id) {
         delete(host + URL + "/" + id);
+        cache.evictAll();
     }
 }
\ No newline at end of file
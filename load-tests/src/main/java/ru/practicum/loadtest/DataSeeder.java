@@ -0,0 +1,102 @@
+package ru.practicum.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Заполняет базу сервера напрямую через JDBC: через API нельзя создать прошедшие и текущие бронирования.
+ * У каждой вещи ровно одно текущее бронирование, остальные поровну в прошлом и в будущем.
+ */
+final class DataSeeder {
+
+    static final List<String> WORDS = List.of("Дрель", "Перфоратор", "Отвертка", "Лестница", "Палатка",
+            "Велосипед", "Самокат", "Пила", "Шуруповерт", "Байдарка", "Проектор", "Гитара");
+
+    private static final String[] BOOKING_STATUSES = {"APPROVED", "WAITING", "REJECTED"};
+
+    record Dataset(List<Long> users, List<Long> items, List<Long> availableItems, Map<Long, Long> itemOwners) {
+    }
+
+    private DataSeeder() {
+    }
+
+    static Dataset seed(JdbcTemplate jdbc, LoadTestOptions options) {
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 0; i < options.users(); i++) {
+            users.add(new Object[]{"user" + i, "load" + i + "@mail.ru"});
+        }
+        jdbc.batchUpdate("INSERT INTO users (name, email) VALUES (?, ?)", users);
+        List<Long> userIds = jdbc.queryForList("SELECT id FROM users ORDER BY id", Long.class);
+
+        List<Object[]> items = new ArrayList<>();
+        for (long owner : userIds) {
+            for (int i = 0; i < options.itemsPerUser(); i++) {
+                String word = WORDS.get(random.nextInt(WORDS.size()));
+                items.add(new Object[]{word + " " + owner + "-" + i, word + " в хорошем состоянии, владелец " + owner,
+                        random.nextInt(10) != 0, owner});
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO items (name, description, available, owner_id) VALUES (?, ?, ?, ?)", items);
+        Map<Long, Long> itemOwners = new HashMap<>();
+        List<Long> itemIds = new ArrayList<>();
+        List<Long> availableItems = new ArrayList<>();
+        jdbc.query("SELECT id, owner_id, available FROM items ORDER BY id", rs -> {
+            itemOwners.put(rs.getLong(1), rs.getLong(2));
+            itemIds.add(rs.getLong(1));
+            if (rs.getBoolean(3)) {
+                availableItems.add(rs.getLong(1));
+            }
+        });
+
+        List<Object[]> bookings = new ArrayList<>();
+        List<Object[]> comments = new ArrayList<>();
+        int half = options.bookingsPerItem() / 2;
+        for (long item : itemIds) {
+            long owner = itemOwners.get(item);
+            for (int slot = 0; slot < options.bookingsPerItem(); slot++) {
+                long booker = otherUser(userIds, owner, random);
+                LocalDateTime start = now.plusDays(slot - half).minusHours(2);
+                String status = slot <= half ? "APPROVED" : BOOKING_STATUSES[random.nextInt(BOOKING_STATUSES.length)];
+                bookings.add(new Object[]{Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(20)), status,
+                        booker, item});
+                if (slot < half && slot % 5 == 0) {
+                    comments.add(new Object[]{"Все понравилось, бронирование " + slot, "user" + booker, item,
+                            Timestamp.valueOf(start.plusDays(1))});
+                }
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO bookings (start_time, end_time, status, booker_id, item_id) VALUES (?, ?, ?, ?, ?)",
+                bookings);
+        // сводки последнего и следующего бронирования пересчитает сервер при первом чтении или планировщиком
+        jdbc.update("UPDATE items SET booking_summary_valid_until = TIMESTAMP '1970-01-01 00:00:00'");
+        jdbc.batchUpdate("INSERT INTO comments (text, author_name, item_id, created_at) VALUES (?, ?, ?, ?)", comments);
+
+        List<Object[]> requests = new ArrayList<>();
+        for (int i = 0; i < options.users() / 2; i++) {
+            requests.add(new Object[]{userIds.get(random.nextInt(userIds.size())),
+                    "Нужна " + WORDS.get(random.nextInt(WORDS.size())).toLowerCase(), Timestamp.valueOf(now.minusHours(i))});
+        }
+        jdbc.batchUpdate("INSERT INTO requests (user_id, description, created_at) VALUES (?, ?, ?)", requests);
+
+        return new Dataset(userIds, itemIds, availableItems, itemOwners);
+    }
+
+    static long otherUser(List<Long> users, long excluded, Random random) {
+        long user;
+        do {
+            user = users.get(random.nextInt(users.size()));
+        } while (user == excluded && users.size() > 1);
+        return user;
+    }
+}
@@ -0,0 +1,122 @@
+package ru.practicum.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Замкнутая нагрузка: {@code concurrency} виртуальных потоков шлют запросы без пауз,
+ * задержки записываются в микросекундах в гистограммы по каждому эндпоинту.
+ */
+final class LoadRunner {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Workload workload;
+    private final int concurrency;
+    // новые зерна на каждый прогон, иначе замер повторил бы запросы прогрева и бронирования пересекались бы
+    private final AtomicLong seeds = new AtomicLong();
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    LoadRunner(Workload workload, int concurrency) {
+        this.workload = workload;
+        this.concurrency = concurrency;
+    }
+
+    Result run(Duration duration) throws InterruptedException {
+        Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        workload.endpoints().forEach(endpoint -> stats.put(endpoint.name(), new EndpointStats()));
+        long deadline = System.nanoTime() + duration.toNanos();
+        long started = System.nanoTime();
+
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                long seed = seeds.getAndIncrement();
+                workers.submit(() -> {
+                    Random random = new Random(seed);
+                    while (System.nanoTime() < deadline) {
+                        Workload.Endpoint endpoint = workload.next(random);
+                        EndpointStats endpointStats = stats.get(endpoint.name());
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(endpoint.request().apply(random),
+                                    HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                endpointStats.errors.increment();
+                            }
+                        } catch (IOException e) {
+                            endpointStats.errors.increment();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+                        endpointStats.latency.recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+                    }
+                });
+            }
+        }
+        return new Result(stats, Duration.ofNanos(System.nanoTime() - started));
+    }
+
+    static final class EndpointStats {
+        private final Histogram latency = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        private final LongAdder errors = new LongAdder();
+    }
+
+    record Result(Map<String, EndpointStats> stats, Duration elapsed) {
+
+        void print(PrintStream out, boolean histograms) {
+            double seconds = elapsed.toNanos() / 1e9;
+            Histogram total = new Histogram(MAX_LATENCY_MICROS, 3);
+            long totalErrors = 0;
+            out.printf(Locale.ROOT, "%-36s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                    "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+            for (Map.Entry<String, EndpointStats> entry : stats.entrySet()) {
+                Histogram latency = entry.getValue().latency;
+                long errors = entry.getValue().errors.sum();
+                total.add(latency);
+                totalErrors += errors;
+                printRow(out, entry.getKey(), latency, errors, seconds);
+            }
+            printRow(out, "TOTAL", total, totalErrors, seconds);
+
+            if (histograms) {
+                for (Map.Entry<String, EndpointStats> entry : stats.entrySet()) {
+                    out.println();
+                    out.println(entry.getKey() + " (ms)");
+                    entry.getValue().latency.outputPercentileDistribution(out, 1000.0);
+                }
+            }
+        }
+
+        private static void printRow(PrintStream out, String name, Histogram latency, long errors, double seconds) {
+            out.printf(Locale.ROOT, "%-36s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    name, latency.getTotalCount(), errors, latency.getTotalCount() / seconds,
+                    millis(latency.getValueAtPercentile(50)), millis(latency.getValueAtPercentile(90)),
+                    millis(latency.getValueAtPercentile(99)), millis(latency.getValueAtPercentile(99.9)),
+                    millis(latency.getMaxValue()));
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.loadtest;
+
+/**
+ * Нагрузочный прогон шлюз → сервер → встроенная H2 в режиме PostgreSQL.
+ * <pre>
+ * mvn -pl load-tests -am package -DskipTests
+ * java -jar load-tests/target/load-tests-0.0.1-SNAPSHOT.jar --users=200 --concurrency=64 --duration=30s
+ * </pre>
+ * Параметры: {@code users}, {@code items-per-user}, {@code bookings-per-item}, {@code concurrency},
+ * {@code warmup}, {@code duration} (в формате {@code 30s}, {@code 2m}), {@code histograms=true} для вывода
+ * полных распределений задержек, {@code virtual-threads=false} для обработки запросов сервера и шлюза
+ * на пуле платформенных потоков Tomcat вместо виртуальных.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        try (ShareItStack stack = ShareItStack.start(options.virtualThreads())) {
+            DataSeeder.Dataset data = DataSeeder.seed(stack.serverJdbcTemplate(), options);
+            System.out.printf("Данные: %d пользователей, %d вещей, %d бронирований на вещь%n",
+                    data.users().size(), data.items().size(), options.bookingsPerItem());
+
+            LoadRunner runner = new LoadRunner(Workload.standard(stack.gatewayUri(), data), options.concurrency());
+            runner.run(options.warmup());
+            System.out.printf("Прогрев %s завершен, замер %s при %d параллельных клиентах, виртуальные потоки: %s%n",
+                    options.warmup(), options.duration(), options.concurrency(), options.virtualThreads());
+            runner.run(options.duration()).print(System.out, options.histograms());
+        }
+        System.exit(0);
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Параметры прогона, задаются аргументами вида {@code --name=value}.
+ */
+record LoadTestOptions(int users,
+                       int itemsPerUser,
+                       int bookingsPerItem,
+                       int concurrency,
+                       Duration warmup,
+                       Duration duration,
+                       boolean histograms,
+                       boolean virtualThreads) {
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Ожидается аргумент вида --name=value: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return new LoadTestOptions(
+                Integer.parseInt(values.getOrDefault("users", "200")),
+                Integer.parseInt(values.getOrDefault("items-per-user", "5")),
+                Integer.parseInt(values.getOrDefault("bookings-per-item", "20")),
+                Integer.parseInt(values.getOrDefault("concurrency", "64")),
+                Duration.parse("PT" + values.getOrDefault("warmup", "10s")),
+                Duration.parse("PT" + values.getOrDefault("duration", "30s")),
+                Boolean.parseBoolean(values.getOrDefault("histograms", "false")),
+                Boolean.parseBoolean(values.getOrDefault("virtual-threads", "true")));
+    }
+}
@@ -0,0 +1,121 @@
+package ru.practicum.loadtest;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.gateway.App;
+import ru.practicum.server.ShareItApp;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Сервер и шлюз, запущенные в одном процессе на свободных портах.
+ * <p>
+ * Оба приложения держат настройки в {@code application.properties}, и на общем classpath виден только один из файлов,
+ * поэтому настройки каждого приложения читаются из его собственного артефакта и передаются как свойства по умолчанию.
+ * Их по-прежнему можно переопределить системными свойствами и переменными окружения,
+ * например направить сервер на настоящий PostgreSQL через {@code -Dspring.datasource.url=...}.
+ */
+final class ShareItStack implements AutoCloseable {
+
+    private static final String EMBEDDED_DATABASE_URL =
+            "jdbc:h2:mem:shareit-load;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+
+    private final ConfigurableApplicationContext server;
+    private final ConfigurableApplicationContext gateway;
+
+    private ShareItStack(ConfigurableApplicationContext server, ConfigurableApplicationContext gateway) {
+        this.server = server;
+        this.gateway = gateway;
+    }
+
+    /**
+     * @param virtualThreads обрабатывать запросы сервера и шлюза на виртуальных потоках,
+     *                       а не на пуле платформенных потоков Tomcat
+     */
+    static ShareItStack start(boolean virtualThreads) {
+        Map<String, Object> serverProperties = bundledProperties(ShareItApp.class);
+        serverProperties.put("server.port", "0");
+        serverProperties.put("spring.threads.virtual.enabled", String.valueOf(virtualThreads));
+        serverProperties.put("spring.datasource.url", EMBEDDED_DATABASE_URL);
+        serverProperties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        serverProperties.put("spring.datasource.username", "sa");
+        serverProperties.put("spring.datasource.password", "");
+        ConfigurableApplicationContext server = run(ShareItApp.class, serverProperties);
+
+        Map<String, Object> gatewayProperties = bundledProperties(App.class);
+        gatewayProperties.put("server.port", "0");
+        gatewayProperties.put("spring.threads.virtual.enabled", String.valueOf(virtualThreads));
+        gatewayProperties.put("shareit-server.url", "http://localhost:" + port(server));
+        // JPA и Flyway попадают в classpath шлюза вместе с сервером, но самому шлюзу не нужны
+        gatewayProperties.put("spring.autoconfigure.exclude", String.join(",",
+                "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration",
+                "org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration",
+                "org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration"));
+        ConfigurableApplicationContext gateway = run(App.class, gatewayProperties);
+
+        return new ShareItStack(server, gateway);
+    }
+
+    URI gatewayUri() {
+        return URI.create("http://localhost:" + port(gateway));
+    }
+
+    JdbcTemplate serverJdbcTemplate() {
+        return server.getBean(JdbcTemplate.class);
+    }
+
+    @Override
+    public void close() {
+        gateway.close();
+        server.close();
+    }
+
+    private static ConfigurableApplicationContext run(Class<?> application, Map<String, Object> properties) {
+        // отладочное логирование SQL и транзакций из настроек приложений исказило бы замеры
+        properties.keySet().removeIf(key -> key.startsWith("logging.level."));
+        properties.put("logging.level.root", "WARN");
+        properties.put("spring.jpa.show-sql", "false");
+        return new SpringApplicationBuilder(application)
+                .properties(properties)
+                .run("--spring.config.name=shareit-load-test");
+    }
+
+    private static int port(ConfigurableApplicationContext context) {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    private static Map<String, Object> bundledProperties(Class<?> application) {
+        String base = application.getProtectionDomain().getCodeSource().getLocation().toString();
+        try {
+            Enumeration<URL> resources = application.getClassLoader().getResources("application.properties");
+            while (resources.hasMoreElements()) {
+                URL resource = resources.nextElement();
+                String url = resource.toString();
+                if (url.startsWith(base) || url.startsWith("jar:" + base)) {
+                    Properties properties = new Properties();
+                    try (InputStream in = resource.openStream()) {
+                        properties.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+                    }
+                    Map<String, Object> result = new HashMap<>();
+                    properties.forEach((key, value) -> result.put((String) key, value));
+                    return result;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        throw new IllegalStateException("Не найден application.properties приложения " + application.getName());
+    }
+}
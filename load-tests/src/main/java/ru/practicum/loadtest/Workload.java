@@ -0,0 +1,102 @@
+package ru.practicum.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Смесь запросов к шлюзу с весами, близкими к пользовательскому трафику: чтение преобладает, запись около 5%.
+ */
+final class Workload {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    record Endpoint(String name, int weight, Function<Random, HttpRequest> request) {
+    }
+
+    private final List<Endpoint> endpoints;
+    private final int totalWeight;
+
+    private Workload(List<Endpoint> endpoints) {
+        this.endpoints = endpoints;
+        this.totalWeight = endpoints.stream().mapToInt(Endpoint::weight).sum();
+    }
+
+    List<Endpoint> endpoints() {
+        return endpoints;
+    }
+
+    Endpoint next(Random random) {
+        int point = random.nextInt(totalWeight);
+        for (Endpoint endpoint : endpoints) {
+            point -= endpoint.weight();
+            if (point < 0) {
+                return endpoint;
+            }
+        }
+        throw new IllegalStateException("Пустой набор запросов");
+    }
+
+    static Workload standard(URI gateway, DataSeeder.Dataset data) {
+        LocalDateTime farFuture = LocalDateTime.now().plusYears(2).truncatedTo(ChronoUnit.HOURS);
+        return new Workload(List.of(
+                new Endpoint("GET /users/{id}", 10,
+                        random -> get(gateway, "/users/" + user(data, random), null)),
+                new Endpoint("GET /items", 10,
+                        random -> get(gateway, "/items", user(data, random))),
+                new Endpoint("GET /items/{id}", 15,
+                        random -> {
+                            long item = item(data, random);
+                            // в половине случаев смотрит владелец: ответ содержит последнее и следующее бронирования
+                            long user = random.nextBoolean() ? data.itemOwners().get(item) : user(data, random);
+                            return get(gateway, "/items/" + item, user);
+                        }),
+                new Endpoint("GET /items/search", 15,
+                        random -> get(gateway, "/items/search?text=" + URLEncoder.encode(
+                                DataSeeder.WORDS.get(random.nextInt(DataSeeder.WORDS.size())).substring(0, 4),
+                                StandardCharsets.UTF_8), user(data, random))),
+                new Endpoint("GET /bookings?state=ALL", 10,
+                        random -> get(gateway, "/bookings?state=ALL", user(data, random))),
+                new Endpoint("GET /bookings?state=ALL&size=20", 5,
+                        random -> get(gateway, "/bookings?state=ALL&size=20", user(data, random))),
+                new Endpoint("GET /bookings/owner?state=CURRENT", 15,
+                        random -> get(gateway, "/bookings/owner?state=CURRENT", user(data, random))),
+                new Endpoint("GET /requests/all", 5,
+                        random -> get(gateway, "/requests/all", user(data, random))),
+                new Endpoint("POST /bookings", 5,
+                        random -> {
+                            long item = data.availableItems().get(random.nextInt(data.availableItems().size()));
+                            long booker = DataSeeder.otherUser(data.users(), data.itemOwners().get(item), random);
+                            LocalDateTime start = farFuture.plusHours(random.nextInt(24 * 365 * 5));
+                            String body = "{\"itemId\":" + item + ",\"start\":\"" + start + "\",\"end\":\""
+                                    + start.plusHours(1) + "\"}";
+                            return HttpRequest.newBuilder(gateway.resolve("/bookings"))
+                                    .header(USER_HEADER, String.valueOf(booker))
+                                    .header("Content-Type", "application/json")
+                                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                                    .build();
+                        })));
+    }
+
+    private static HttpRequest get(URI gateway, String path, Long user) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(gateway.resolve(path)).GET();
+        if (user != null) {
+            builder.header(USER_HEADER, String.valueOf(user));
+        }
+        return builder.build();
+    }
+
+    private static long user(DataSeeder.Dataset data, Random random) {
+        return data.users().get(random.nextInt(data.users().size()));
+    }
+
+    private static long item(DataSeeder.Dataset data, Random random) {
+        return data.items().get(random.nextInt(data.items().size()));
+    }
+}
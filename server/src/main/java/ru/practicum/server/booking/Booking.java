@@ -27,8 +27,13 @@ public class Booking {
         status = BookingStatus.WAITING;
     }
 
+    /**
+     * Последовательность с шагом 50: Hibernate выдаёт идентификаторы из полученного диапазона
+     * и может вставлять бронирования пакетами, что невозможно с IDENTITY.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -42,11 +47,11 @@ public class Booking {
     @Enumerated(EnumType.STRING)
     private BookingStatus status;
 
-    @ManyToOne(fetch = FetchType.LAZY)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "item_id")
     private Item item;
 
-    @ManyToOne(fetch = FetchType.LAZY)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "booker_id")
     private User booker;
 }
@@ -2,9 +2,13 @@ package ru.practicum.server.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.dto.booking.BookingBatchResultDto;
+import ru.practicum.dto.booking.BookingDecisionDto;
 import ru.practicum.dto.booking.BookingDto;
 import ru.practicum.dto.booking.ResponseBookingDto;
+import ru.practicum.server.pagination.Cursors;
 
 import java.util.List;
 
@@ -21,38 +25,65 @@ public class BookingController {
 
     @PostMapping
     public ResponseBookingDto create(@RequestHeader("X-Sharer-User-Id") long userid, @RequestBody BookingDto dto) {
-        log.info("Поступил POST запрос от пользователя с id = {} на создание запроса на бронирование: {}", userid, dto);
+        log.debug("Поступил POST запрос от пользователя с id = {} на создание запроса на бронирование: {}", userid, dto);
         return service.create(userid, dto);
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> createBatch(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                   @RequestBody List<BookingDto> dtos) {
+        log.debug("Поступил POST запрос от пользователя с id = {} на создание {} бронирований", userId, dtos.size());
+        return service.createBatch(userId, dtos);
+    }
+
+    @PatchMapping("/batch")
+    public List<BookingBatchResultDto> approveBatch(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                    @RequestBody List<BookingDecisionDto> decisions) {
+        log.debug("Поступил PATCH запрос от пользователя с id = {} на изменение статуса {} бронирований",
+                userId, decisions.size());
+        return service.approveBatch(userId, decisions);
+    }
+
     @PatchMapping("/{bookingId}")
     public ResponseBookingDto approve(@RequestHeader("X-Sharer-User-Id") long userId,
                                       @PathVariable long bookingId,
                                       @RequestParam boolean approved) {
-        log.info("Поступил PATCH запрос на изменение статуса бронирование с id = {} на {} от пользователя с id = {}",
+        log.debug("Поступил PATCH запрос на изменение статуса бронирование с id = {} на {} от пользователя с id = {}",
                 bookingId, approved, userId);
         return service.approve(userId, bookingId, approved);
     }
 
     @GetMapping("/{bookingId}")
     public ResponseBookingDto findById(@RequestHeader("X-Sharer-User-Id") long userid, @PathVariable long bookingId) {
-        log.info("Поступил GET запрос от пользователя с id = {} на получение бронирования с id = {}", userid, bookingId);
+        log.debug("Поступил GET запрос от пользователя с id = {} на получение бронирования с id = {}", userid, bookingId);
         return service.findById(userid, bookingId);
     }
 
     @GetMapping
-    public List<ResponseBookingDto> findByState(@RequestHeader("X-Sharer-User-Id") long userid,
-                                                @RequestParam(required = false, defaultValue = "ALL") BookingState state) {
-        log.info("Поступил GET запрос от пользователя с id = {} на получение списка бронирований со статусом = {}",
+    public ResponseEntity<List<ResponseBookingDto>> findByState(@RequestHeader("X-Sharer-User-Id") long userid,
+                                                                @RequestParam(required = false, defaultValue = "ALL") BookingState state,
+                                                                @RequestParam(required = false) String from,
+                                                                @RequestParam(required = false) Integer size) {
+        log.debug("Поступил GET запрос от пользователя с id = {} на получение списка бронирований со статусом = {}",
                 userid, state);
-        return service.findByState(userid, state);
+        if (size == null) return ResponseEntity.ok(service.findByState(userid, state));
+        return toResponse(service.findByState(userid, state, from, size));
     }
 
     @GetMapping("/owner")
-    public List<ResponseBookingDto> findForOwnerByState(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                        @RequestParam(required = false, defaultValue = "ALL") BookingState state) {
-        log.info("Поступил GET запрос от пользователя с id = {} на получение списка бронирований своих товаров со статусом = {}",
+    public ResponseEntity<List<ResponseBookingDto>> findForOwnerByState(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                                        @RequestParam(required = false, defaultValue = "ALL") BookingState state,
+                                                                        @RequestParam(required = false) String from,
+                                                                        @RequestParam(required = false) Integer size) {
+        log.debug("Поступил GET запрос от пользователя с id = {} на получение списка бронирований своих товаров со статусом = {}",
                 userId, state);
-        return service.findForOwnerByState(userId, state);
+        if (size == null) return ResponseEntity.ok(service.findForOwnerByState(userId, state));
+        return toResponse(service.findForOwnerByState(userId, state, from, size));
+    }
+
+    private static ResponseEntity<List<ResponseBookingDto>> toResponse(BookingPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNext() != null) response.header(Cursors.NEXT_CURSOR_HEADER, page.getNext());
+        return response.body(page.getBookings());
     }
 }
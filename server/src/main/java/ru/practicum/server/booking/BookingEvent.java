@@ -0,0 +1,23 @@
+package ru.practicum.server.booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Содержимое событий бронирования в outbox.
+ */
+public record BookingEvent(long bookingId, long itemId, long bookerId, LocalDateTime start, LocalDateTime end,
+                           BookingStatus status) {
+
+    public static final String CREATED = "BookingCreated";
+    public static final String APPROVED = "BookingApproved";
+    public static final String REJECTED = "BookingRejected";
+
+    static BookingEvent of(Booking booking) {
+        return new BookingEvent(booking.getId(), booking.getItem().getId(), booking.getBooker().getId(),
+                booking.getStart(), booking.getEnd(), booking.getStatus());
+    }
+
+    static String decisionType(Booking booking) {
+        return booking.getStatus() == BookingStatus.APPROVED ? APPROVED : REJECTED;
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.server.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.dto.booking.ResponseBookingDto;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class BookingPage {
+
+    private final List<ResponseBookingDto> bookings;
+
+    private final String next;
+}
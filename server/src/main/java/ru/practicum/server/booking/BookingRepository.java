@@ -1,19 +1,27 @@
 package ru.practicum.server.booking;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import ru.practicum.dto.booking.BookingDto;
 import ru.practicum.server.item.model.Item;
 import ru.practicum.server.user.User;
 
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
+    @EntityGraph(attributePaths = {"booker", "item"})
     List<Booking> findAllByBookerId(long userId, Sort sort);
 
+    @EntityGraph(attributePaths = {"booker", "item"})
     @Query("""
             select booking
             from Booking booking
@@ -24,16 +32,22 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             """)
     List<Booking> findCurrentByBookerId(long userId);
 
+    @EntityGraph(attributePaths = {"booker", "item"})
     List<Booking> findAllByBooker_IdAndEndIsBefore(long userId, LocalDateTime now, Sort sort);
 
+    @EntityGraph(attributePaths = {"booker", "item"})
     List<Booking> findAllByBooker_IdAndStartIsAfter(long userId, LocalDateTime now, Sort sort);
 
+    @EntityGraph(attributePaths = {"booker", "item"})
     List<Booking> findAllByBooker_IdAndStatus(long userId, BookingStatus status, Sort sort);
 
+    @EntityGraph(attributePaths = {"booker", "item"})
     List<Booking> findAllByItem_Owner_Id(long ownerId, Sort sort);
 
-    List<Booking> findAllByItemOwner_IdAndStatus(long ownerId, BookingStatus status, Sort sort);
+    @EntityGraph(attributePaths = {"booker", "item"})
+    List<Booking> findAllByItem_Owner_IdAndStatus(long ownerId, BookingStatus status, Sort sort);
 
+    @EntityGraph(attributePaths = {"booker", "item"})
     @Query("""
             select booking
             from Booking booking
@@ -44,10 +58,52 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             """)
     List<Booking> findCurrentByOwnerId(long ownerId);
 
+    @EntityGraph(attributePaths = {"booker", "item"})
     List<Booking> findAllByItem_Owner_IdAndEndIsBefore(long ownerId, OffsetDateTime now, Sort sort);
 
+    @EntityGraph(attributePaths = {"booker", "item"})
     List<Booking> findAllByItem_Owner_IdAndStartIsAfter(long ownerId, OffsetDateTime now, Sort sort);
 
+    @EntityGraph(attributePaths = {"booker", "item"})
+    Window<Booking> findAllByBookerId(long userId, ScrollPosition position, Limit limit, Sort sort);
+
+    @EntityGraph(attributePaths = {"booker", "item"})
+    Window<Booking> findAllByBooker_IdAndStartLessThanEqualAndEndAfter(long userId, LocalDateTime start,
+                                                                        LocalDateTime end, ScrollPosition position,
+                                                                        Limit limit, Sort sort);
+
+    @EntityGraph(attributePaths = {"booker", "item"})
+    Window<Booking> findAllByBooker_IdAndEndIsBefore(long userId, LocalDateTime now, ScrollPosition position,
+                                                     Limit limit, Sort sort);
+
+    @EntityGraph(attributePaths = {"booker", "item"})
+    Window<Booking> findAllByBooker_IdAndStartIsAfter(long userId, LocalDateTime now, ScrollPosition position,
+                                                      Limit limit, Sort sort);
+
+    @EntityGraph(attributePaths = {"booker", "item"})
+    Window<Booking> findAllByBooker_IdAndStatus(long userId, BookingStatus status, ScrollPosition position,
+                                                Limit limit, Sort sort);
+
+    @EntityGraph(attributePaths = {"booker", "item"})
+    Window<Booking> findAllByItem_Owner_Id(long ownerId, ScrollPosition position, Limit limit, Sort sort);
+
+    @EntityGraph(attributePaths = {"booker", "item"})
+    Window<Booking> findAllByItem_Owner_IdAndStartLessThanEqualAndEndAfter(long ownerId, LocalDateTime start,
+                                                                            LocalDateTime end, ScrollPosition position,
+                                                                            Limit limit, Sort sort);
+
+    @EntityGraph(attributePaths = {"booker", "item"})
+    Window<Booking> findAllByItem_Owner_IdAndEndIsBefore(long ownerId, LocalDateTime now, ScrollPosition position,
+                                                         Limit limit, Sort sort);
+
+    @EntityGraph(attributePaths = {"booker", "item"})
+    Window<Booking> findAllByItem_Owner_IdAndStartIsAfter(long ownerId, LocalDateTime now, ScrollPosition position,
+                                                          Limit limit, Sort sort);
+
+    @EntityGraph(attributePaths = {"booker", "item"})
+    Window<Booking> findAllByItem_Owner_IdAndStatus(long ownerId, BookingStatus status, ScrollPosition position,
+                                                   Limit limit, Sort sort);
+
     @Query("""
             select booking
             from Booking booking
@@ -57,5 +113,93 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
                 and booking.start <= :now
             """)
     List<Booking> findBookingsByItemAndBooker(Item item, User booker, LocalDateTime now);
-}
 
+    @Query("""
+            select count(booking) > 0
+            from Booking booking
+            where booking.item.id = :itemId
+                and booking.status <> 'REJECTED'
+                and booking.start < :end
+                and booking.end > :start
+            """)
+    boolean existsOverlapping(long itemId, LocalDateTime start, LocalDateTime end);
+
+    @Query("""
+            select booking
+            from Booking booking
+            where booking.item.id in :itemIds
+                and booking.status <> 'REJECTED'
+                and booking.start < :end
+                and booking.end > :start
+            """)
+    List<Booking> findOverlapping(Collection<Long> itemIds, LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Периоды ожидающих и подтверждённых бронирований вещи, пересекающих [from, to), в порядке начала.
+     */
+    @Query("""
+            select new ru.practicum.server.booking.BookingInterval(booking.start, booking.end)
+            from Booking booking
+            where booking.item.id = :itemId
+                and booking.status <> 'REJECTED'
+                and booking.start < :to
+                and booking.end > :from
+            order by booking.start
+            """)
+    List<BookingInterval> findOccupiedIntervals(long itemId, LocalDateTime from, LocalDateTime to);
+
+    @Query("""
+            select new ru.practicum.server.booking.BookingInterval(booking.start, booking.end)
+            from Booking booking
+            where booking.item.id = :itemId
+                and booking.status <> 'REJECTED'
+                and booking.end > :from
+            order by booking.start
+            """)
+    List<BookingInterval> findOccupiedIntervalsAfter(long itemId, LocalDateTime from);
+
+    @EntityGraph(attributePaths = {"booker", "item"})
+    List<Booking> findAllByIdIn(Collection<Long> ids);
+
+    @Query("""
+            select booking
+            from Booking booking
+            where booking.item.id in :itemIds
+                and booking.end = (
+                    select max(last.end)
+                    from Booking last
+                    where last.item = booking.item
+                        and last.end < :now
+                )
+            """)
+    List<Booking> findLastBookings(Collection<Long> itemIds, LocalDateTime now);
+
+    @Query("""
+            select booking
+            from Booking booking
+            where booking.item.id in :itemIds
+                and booking.start = (
+                    select min(next.start)
+                    from Booking next
+                    where next.item = booking.item
+                        and next.start > :now
+                )
+            """)
+    List<Booking> findNextBookings(Collection<Long> itemIds, LocalDateTime now);
+
+    /**
+     * Бронирования, которые завершатся раньше остальных ещё не завершившихся бронирований своей вещи.
+     */
+    @Query("""
+            select new ru.practicum.dto.booking.BookingDto(booking.id, booking.start, booking.end, booking.item.id)
+            from Booking booking
+            where booking.item.id in :itemIds
+                and booking.end = (
+                    select min(ending.end)
+                    from Booking ending
+                    where ending.item = booking.item
+                        and ending.end >= :now
+                )
+            """)
+    List<BookingDto> findEndingBookings(Collection<Long> itemIds, LocalDateTime now);
+}
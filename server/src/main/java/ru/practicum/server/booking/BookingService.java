@@ -1,5 +1,7 @@
 package ru.practicum.server.booking;
 
+import ru.practicum.dto.booking.BookingBatchResultDto;
+import ru.practicum.dto.booking.BookingDecisionDto;
 import ru.practicum.dto.booking.BookingDto;
 import ru.practicum.dto.booking.ResponseBookingDto;
 
@@ -9,11 +11,19 @@ public interface BookingService {
 
     ResponseBookingDto create(long userId, BookingDto dto);
 
+    List<BookingBatchResultDto> createBatch(long userId, List<BookingDto> dtos);
+
     ResponseBookingDto findById(long userId, long bookingId);
 
     ResponseBookingDto approve(long userId, long itemId, boolean approved);
 
+    List<BookingBatchResultDto> approveBatch(long userId, List<BookingDecisionDto> decisions);
+
     List<ResponseBookingDto> findByState(long userId, BookingState state);
 
     List<ResponseBookingDto> findForOwnerByState(long userId, BookingState state);
+
+    BookingPage findByState(long userId, BookingState state, String from, int size);
+
+    BookingPage findForOwnerByState(long userId, BookingState state, String from, int size);
 }
@@ -1,59 +1,162 @@
 
 package ru.practicum.server.booking;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.dto.booking.BookingBatchResultDto;
+import ru.practicum.dto.booking.BookingDecisionDto;
 import ru.practicum.dto.booking.BookingDto;
 import ru.practicum.dto.booking.ResponseBookingDto;
 import ru.practicum.server.booking.strategy.BookingFetchStateStrategyFactory;
 import ru.practicum.server.exceptions.ConditionsNotMetException;
 import ru.practicum.server.exceptions.InvalidOperationException;
 import ru.practicum.server.exceptions.NotFoundException;
+import ru.practicum.server.item.ItemBookingSummary;
+import ru.practicum.server.item.ItemOccupancyCache;
 import ru.practicum.server.item.ItemRepository;
 import ru.practicum.server.item.model.Item;
+import ru.practicum.server.outbox.Outbox;
+import ru.practicum.server.pagination.Cursors;
 import ru.practicum.server.user.User;
+import ru.practicum.server.user.UserCache;
 import ru.practicum.server.user.UserRepository;
 
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "shareit.service", histogram = true)
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
 
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final Sort KEYSET_SORT = Sort.by("start").ascending().and(Sort.by("id").ascending());
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
+    private final UserCache userCache;
     private final ItemRepository itemRepository;
     private final BookingFetchStateStrategyFactory strategyFactory;
+    private final ItemBookingSummary bookingSummary;
+    private final Outbox outbox;
+    private final ItemOccupancyCache occupancyCache;
 
     @Transactional
     @Override
     public ResponseBookingDto create(long userId, BookingDto dto) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь с id = " + userId + " не найден"));
-        Item item = itemRepository.findById(dto.getItemId())
+        Item item = itemRepository.findByIdForUpdate(dto.getItemId())
                 .orElseThrow(() -> new NotFoundException("Товар с id = " + dto.getItemId() + " не найден"));
         checkConditions(dto, item);
         Booking booking = BookingMapper.mapToBooking(dto, item, user);
         Booking saved = bookingRepository.save(booking);
+        bookingSummary.onBookingCreated(item, saved, LocalDateTime.now());
+        occupancyCache.evict(item.getId());
+        appendEvent(BookingEvent.CREATED, saved);
         return BookingMapper.mapToResponseBookingDto(saved);
     }
 
+    /**
+     * Бронирования пакета проверяются по одному и сохраняются вместе; записи, не прошедшие проверку,
+     * попадают в результат с причиной отказа и не мешают остальным. Вещи блокируются в порядке id,
+     * чтобы встречные пакеты не взаимоблокировались.
+     */
+    @Transactional
+    @Override
+    public List<BookingBatchResultDto> createBatch(long userId, List<BookingDto> dtos) {
+        checkBatchSize(dtos);
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("Пользователь с id = " + userId + " не найден"));
+        List<Long> itemIds = dtos.stream().filter(Objects::nonNull).map(BookingDto::getItemId).distinct().sorted().toList();
+        Map<Long, Item> items = itemRepository.findAllByIdForUpdate(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        Map<Long, List<Booking>> taken = findTaken(itemIds, dtos);
+
+        List<BookingBatchResultDto> results = new ArrayList<>(dtos.size());
+        Map<Integer, Booking> created = new LinkedHashMap<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            BookingDto dto = dtos.get(i);
+            try {
+                if (dto == null) throw new ConditionsNotMetException("Пустая запись пакета");
+                Item item = items.get(dto.getItemId());
+                if (item == null)
+                    throw new NotFoundException("Товар с id = " + dto.getItemId() + " не найден");
+                checkPeriod(dto, item);
+                List<Booking> itemBookings = taken.computeIfAbsent(item.getId(), id -> new ArrayList<>());
+                if (overlaps(itemBookings, dto.getStart(), dto.getEnd()))
+                    throw new ConditionsNotMetException("Товар с id = " + item.getId() + " уже забронирован на указанный период");
+                Booking booking = BookingMapper.mapToBooking(dto, item, user);
+                itemBookings.add(booking);
+                created.put(i, booking);
+                results.add(null);
+            } catch (NotFoundException | ConditionsNotMetException e) {
+                results.add(BookingBatchResultDto.failure(i, e.getMessage()));
+            }
+        }
+
+        bookingRepository.saveAll(created.values());
+        LocalDateTime now = LocalDateTime.now();
+        created.forEach((index, booking) -> {
+            bookingSummary.onBookingCreated(booking.getItem(), booking, now);
+            occupancyCache.evict(booking.getItem().getId());
+            appendEvent(BookingEvent.CREATED, booking);
+            results.set(index, BookingBatchResultDto.success(index, BookingMapper.mapToResponseBookingDto(booking)));
+        });
+        return results;
+    }
+
+    private Map<Long, List<Booking>> findTaken(List<Long> itemIds, List<BookingDto> dtos) {
+        List<BookingDto> periods = dtos.stream()
+                .filter(dto -> dto != null && dto.getStart() != null && dto.getEnd() != null)
+                .toList();
+        if (itemIds.isEmpty() || periods.isEmpty()) return new HashMap<>();
+        LocalDateTime from = periods.stream().map(BookingDto::getStart).min(LocalDateTime::compareTo).orElseThrow();
+        LocalDateTime to = periods.stream().map(BookingDto::getEnd).max(LocalDateTime::compareTo).orElseThrow();
+        return bookingRepository.findOverlapping(itemIds, from, to).stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId(), HashMap::new,
+                        Collectors.toCollection(ArrayList::new)));
+    }
+
+    private static boolean overlaps(List<Booking> bookings, LocalDateTime start, LocalDateTime end) {
+        return bookings.stream().anyMatch(booking -> booking.getStatus() != BookingStatus.REJECTED
+                && booking.getStart().isBefore(end)
+                && booking.getEnd().isAfter(start));
+    }
+
     private boolean checkConditions(BookingDto dto, Item item) {
+        checkPeriod(dto, item);
+        if (bookingRepository.existsOverlapping(item.getId(), dto.getStart(), dto.getEnd()))
+            throw new ConditionsNotMetException("Товар с id = " + item.getId() + " уже забронирован на указанный период");
+        return true;
+    }
+
+    private static void checkPeriod(BookingDto dto, Item item) {
         LocalDateTime start = dto.getStart();
         LocalDateTime end = dto.getEnd();
         if (!item.isAvailable())
             throw new ConditionsNotMetException("Товар с id = " + item.getId() + "не доступен для бронирования");
-        if (start.isBefore(LocalDateTime.now().minusSeconds(3)))
+        if (start == null || start.isBefore(LocalDateTime.now().minusSeconds(3)))
             throw new ConditionsNotMetException("Неверно указано начало бронирования");
-        if (!end.isAfter(start))
+        if (end == null || !end.isAfter(start))
             throw new ConditionsNotMetException("Неверно указано окончание бронирования");
-        return true;
     }
 
+    @Transactional
     @Override
     public ResponseBookingDto findById(long userId, long bookingId) {
         Booking booking = getBooking(bookingId);
@@ -64,48 +167,142 @@ public class BookingServiceImpl implements BookingService {
         return BookingMapper.mapToResponseBookingDto(booking);
     }
 
-    @Transactional
+    /**
+     * Бронирование недоступной вещи отклоняется, и отказ сохраняется, несмотря на исключение.
+     */
+    @Transactional(noRollbackFor = ConditionsNotMetException.class)
     @Override
     public ResponseBookingDto approve(long userId, long bookingId, boolean approved) {
         Booking booking = getBooking(bookingId);
+        decide(userId, booking, approved);
+        return BookingMapper.mapToResponseBookingDto(booking);
+    }
+
+    /**
+     * Решения по бронированиям пакета применяются в одной транзакции; изменённые статусы
+     * записываются пакетными UPDATE при фиксации.
+     */
+    @Transactional
+    @Override
+    public List<BookingBatchResultDto> approveBatch(long userId, List<BookingDecisionDto> decisions) {
+        checkBatchSize(decisions);
+        Map<Long, Booking> bookings = bookingRepository.findAllByIdIn(
+                        decisions.stream().filter(Objects::nonNull).map(BookingDecisionDto::getBookingId).toList()).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        List<BookingBatchResultDto> results = new ArrayList<>(decisions.size());
+        for (int i = 0; i < decisions.size(); i++) {
+            BookingDecisionDto decision = decisions.get(i);
+            try {
+                if (decision == null) throw new ConditionsNotMetException("Пустая запись пакета");
+                Booking booking = bookings.get(decision.getBookingId());
+                if (booking == null)
+                    throw new NotFoundException("Бронирование с id = " + decision.getBookingId() + " не найдено");
+                decide(userId, booking, decision.isApproved());
+                results.add(BookingBatchResultDto.success(i, BookingMapper.mapToResponseBookingDto(booking)));
+            } catch (NotFoundException | InvalidOperationException | ConditionsNotMetException e) {
+                results.add(BookingBatchResultDto.failure(i, e.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Общее решение владельца для одиночного и пакетного подтверждения. Решение принимается один раз:
+     * пересечения проверяются под блокировкой вещи только при создании, и повторное подтверждение
+     * отклонённого бронирования могло бы занять уже отданный период.
+     */
+    private void decide(long userId, Booking booking, boolean approved) {
         Item item = booking.getItem();
         if (userId != item.getOwner().getId())
             throw new InvalidOperationException("Можно подтверждать бронирование только своих товаров");
+        if (booking.getStatus() != BookingStatus.WAITING)
+            throw new ConditionsNotMetException("Решение по бронированию с id = " + booking.getId() + " уже принято");
         if (!item.isAvailable()) {
             booking.setStatus(BookingStatus.REJECTED);
             bookingRepository.save(booking);
+            occupancyCache.evict(item.getId());
+            appendEvent(BookingEvent.decisionType(booking), booking);
             throw new ConditionsNotMetException("Товар с id = " + item.getId() + " более не доступен для бронирования.");
         }
         booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
         bookingRepository.save(booking);
-        return BookingMapper.mapToResponseBookingDto(booking);
+        occupancyCache.evict(item.getId());
+        appendEvent(BookingEvent.decisionType(booking), booking);
     }
 
+    @Transactional(readOnly = true)
     @Override
     public List<ResponseBookingDto> findByState(long userId, BookingState state) {
-        if (!userRepository.existsById(userId))
-            throw new NotFoundException("Пользователь с id = " + userId + " не найден");
+        checkUserExists(userId);
         Sort sort = Sort.by("start").ascending();
         List<Booking> bookings = strategyFactory.findStrategy(state).getBookings(userId, sort);
         return BookingMapper.mapToResponseBookingDto(bookings);
     }
 
+    @Transactional(readOnly = true)
     @Override
     public List<ResponseBookingDto> findForOwnerByState(long userId, BookingState state) {
-        if (!userRepository.existsById(userId))
-            throw new NotFoundException("Пользователь с id = " + userId + " не найден");
+        checkUserExists(userId);
         Sort sort = Sort.by("start").ascending();
         List<Booking> bookings = switch (state) {
             case ALL -> bookingRepository.findAllByItem_Owner_Id(userId, sort);
             case CURRENT -> bookingRepository.findCurrentByOwnerId(userId);
             case PAST -> bookingRepository.findAllByItem_Owner_IdAndEndIsBefore(userId, OffsetDateTime.now(), sort);
             case FUTURE -> bookingRepository.findAllByItem_Owner_IdAndStartIsAfter(userId, OffsetDateTime.now(), sort);
-            case WAITING -> bookingRepository.findAllByItemOwner_IdAndStatus(userId, BookingStatus.WAITING, sort);
-            case REJECTED -> bookingRepository.findAllByItemOwner_IdAndStatus(userId, BookingStatus.REJECTED, sort);
+            case WAITING -> bookingRepository.findAllByItem_Owner_IdAndStatus(userId, BookingStatus.WAITING, sort);
+            case REJECTED -> bookingRepository.findAllByItem_Owner_IdAndStatus(userId, BookingStatus.REJECTED, sort);
         };
         return BookingMapper.mapToResponseBookingDto(bookings);
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public BookingPage findByState(long userId, BookingState state, String from, int size) {
+        checkUserExists(userId);
+        ScrollPosition position = Cursors.decode(from);
+        Limit limit = Cursors.limit(size);
+        Window<Booking> bookings = strategyFactory.findStrategy(state)
+                .getBookings(userId, position, limit, KEYSET_SORT);
+        return new BookingPage(BookingMapper.mapToResponseBookingDto(bookings), Cursors.next(bookings));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public BookingPage findForOwnerByState(long userId, BookingState state, String from, int size) {
+        checkUserExists(userId);
+        ScrollPosition position = Cursors.decode(from);
+        Limit limit = Cursors.limit(size);
+        LocalDateTime now = LocalDateTime.now();
+        Window<Booking> bookings = switch (state) {
+            case ALL -> bookingRepository.findAllByItem_Owner_Id(userId, position, limit, KEYSET_SORT);
+            case CURRENT -> bookingRepository.findAllByItem_Owner_IdAndStartLessThanEqualAndEndAfter(userId, now, now,
+                    position, limit, KEYSET_SORT);
+            case PAST -> bookingRepository.findAllByItem_Owner_IdAndEndIsBefore(userId, now, position, limit,
+                    KEYSET_SORT);
+            case FUTURE -> bookingRepository.findAllByItem_Owner_IdAndStartIsAfter(userId, now, position, limit,
+                    KEYSET_SORT);
+            case WAITING -> bookingRepository.findAllByItem_Owner_IdAndStatus(userId, BookingStatus.WAITING, position,
+                    limit, KEYSET_SORT);
+            case REJECTED -> bookingRepository.findAllByItem_Owner_IdAndStatus(userId, BookingStatus.REJECTED, position,
+                    limit, KEYSET_SORT);
+        };
+        return new BookingPage(BookingMapper.mapToResponseBookingDto(bookings), Cursors.next(bookings));
+    }
+
+    private void appendEvent(String type, Booking booking) {
+        outbox.append(type, booking.getId(), BookingEvent.of(booking));
+    }
+
+    private void checkUserExists(long userId) {
+        if (userCache.find(userId).isEmpty())
+            throw new NotFoundException("Пользователь с id = " + userId + " не найден");
+    }
+
+    private static void checkBatchSize(List<?> entries) {
+        if (entries.isEmpty() || entries.size() > MAX_BATCH_SIZE)
+            throw new ConditionsNotMetException("Пакет должен содержать от 1 до " + MAX_BATCH_SIZE + " записей");
+    }
+
     private Booking getBooking(long id) {
         return bookingRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Бронирование с id = " + id + " не найдено"));
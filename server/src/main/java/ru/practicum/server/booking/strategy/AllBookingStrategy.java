@@ -1,7 +1,10 @@
 package ru.practicum.server.booking.strategy;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Component;
 import ru.practicum.server.booking.Booking;
 import ru.practicum.server.booking.BookingRepository;
@@ -20,6 +23,11 @@ public class AllBookingStrategy implements BookingFetchStateStrategy {
         return repository.findAllByBookerId(userId, sort);
     }
 
+    @Override
+    public Window<Booking> getBookings(long userId, ScrollPosition position, Limit limit, Sort sort) {
+        return repository.findAllByBookerId(userId, position, limit, sort);
+    }
+
     @Override
     public BookingState getStrategyState() {
         return BookingState.ALL;
@@ -1,6 +1,9 @@
 package ru.practicum.server.booking.strategy;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import ru.practicum.server.booking.Booking;
 import ru.practicum.server.booking.BookingState;
 
@@ -10,5 +13,7 @@ public interface BookingFetchStateStrategy {
 
     List<Booking> getBookings(long userId, Sort sort);
 
+    Window<Booking> getBookings(long userId, ScrollPosition position, Limit limit, Sort sort);
+
     BookingState getStrategyState();
 }
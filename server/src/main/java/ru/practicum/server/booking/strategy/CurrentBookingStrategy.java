@@ -1,12 +1,16 @@
 package ru.practicum.server.booking.strategy;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Component;
 import ru.practicum.server.booking.Booking;
 import ru.practicum.server.booking.BookingRepository;
 import ru.practicum.server.booking.BookingState;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Component
@@ -20,6 +24,12 @@ public class CurrentBookingStrategy implements BookingFetchStateStrategy {
         return repository.findCurrentByBookerId(userId);
     }
 
+    @Override
+    public Window<Booking> getBookings(long userId, ScrollPosition position, Limit limit, Sort sort) {
+        LocalDateTime now = LocalDateTime.now();
+        return repository.findAllByBooker_IdAndStartLessThanEqualAndEndAfter(userId, now, now, position, limit, sort);
+    }
+
     @Override
     public BookingState getStrategyState() {
         return BookingState.CURRENT;
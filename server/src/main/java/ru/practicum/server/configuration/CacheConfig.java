@@ -0,0 +1,49 @@
+package ru.practicum.server.configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.server.item.ItemOccupancyCache;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * Запись и удаление из кэша выполняются только после фиксации транзакции,
+     * чтобы откат не оставлял в кэше несуществующих данных.
+     */
+    @Bean
+    public static BeanPostProcessor transactionAwareCacheManager() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof CacheManager cacheManager
+                        && !(bean instanceof TransactionAwareCacheManagerProxy)) {
+                    return new TransactionAwareCacheManagerProxy(cacheManager);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Занятость вещей меняется чаще пользователей, поэтому её записи живут меньше общего
+     * {@code spring.cache.caffeine.spec}.
+     */
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> itemOccupancyCacheCustomizer(
+            @Value("${shareit.item-occupancy.ttl}") Duration ttl) {
+        return cacheManager -> cacheManager.registerCustomCache(ItemOccupancyCache.ITEM_OCCUPANCY,
+                Caffeine.newBuilder().maximumSize(10_000).expireAfterWrite(ttl).recordStats().build());
+    }
+}
@@ -0,0 +1,91 @@
+package ru.practicum.server.configuration;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Ограничивает число одновременно выданных JDBC-соединений. На виртуальных потоках число
+ * конкурентных запросов не ограничено пулом потоков Tomcat, поэтому ожидающие соединения
+ * запросы выстраиваются в честную очередь здесь и получают ошибку по истечении таймаута,
+ * а не исчерпывают пул соединений.
+ */
+public class ConcurrencyLimitingDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final Duration acquireTimeout;
+
+    public ConcurrencyLimitingDataSource(DataSource target, int maxConcurrency, Duration acquireTimeout) {
+        super(target);
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return limited(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return limited(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS))
+                throw new SQLTransientConnectionException("Не удалось получить соединение с БД за " + acquireTimeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Ожидание соединения с БД прервано", e);
+        }
+    }
+
+    private Connection limited(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                ConcurrencyLimitingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        } finally {
+                            permits.release();
+                        }
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.server.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+public class DataSourceConfig {
+
+    /**
+     * Основной источник ограничивается по числу соединений; если задана реплика, она ограничивается
+     * своим пулом, и транзакции только для чтения направляются в неё.
+     */
+    @Bean
+    public static BeanPostProcessor jdbcConcurrencyLimiter(
+            @Value("${shareit.jdbc.max-concurrency}") int maxConcurrency,
+            @Value("${shareit.jdbc.acquire-timeout}") Duration acquireTimeout,
+            ObjectProvider<ReadReplica> readReplica) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConcurrencyLimitingDataSource)
+                        && !(bean instanceof LazyConnectionDataSourceProxy)) {
+                    DataSource primary = new ConcurrencyLimitingDataSource(dataSource, maxConcurrency, acquireTimeout);
+                    ReadReplica replica = readReplica.getIfAvailable();
+                    if (replica == null) {
+                        return primary;
+                    }
+                    DataSource replicaPool = new ConcurrencyLimitingDataSource(replica.dataSource(),
+                            replica.dataSource().getMaximumPoolSize(), acquireTimeout);
+                    return new LazyConnectionDataSourceProxy(
+                            new ReadReplicaRoutingDataSource(primary, replicaPool, replica));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty("shareit.datasource.replica.url")
+    public ReadReplica readReplica(@Value("${shareit.datasource.replica.url}") String url,
+                                   @Value("${shareit.datasource.replica.username}") String username,
+                                   @Value("${shareit.datasource.replica.password}") String password,
+                                   @Value("${shareit.datasource.replica.maximum-pool-size}") int maximumPoolSize,
+                                   @Value("${shareit.datasource.replica.lag-query}") String lagQuery,
+                                   @Value("${shareit.datasource.replica.max-lag}") Duration maxLag) {
+        HikariDataSource pool = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        pool.setPoolName("replica");
+        pool.setMaximumPoolSize(maximumPoolSize);
+        pool.setReadOnly(true);
+        return new ReadReplica(pool, lagQuery, maxLag);
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.server.configuration;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+@Configuration
+public class EtagConfig {
+
+    /**
+     * ETag вычисляется по телу ответа на GET-запросы карточек вещей, пользователей и запросов;
+     * при совпадении с If-None-Match клиент (gateway) получает 304 без тела.
+     */
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> etagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/items/*", "/users/*", "/requests/*");
+        return registration;
+    }
+}
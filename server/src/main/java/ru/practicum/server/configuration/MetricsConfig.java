@@ -0,0 +1,40 @@
+package ru.practicum.server.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public RequestStatistics requestStatistics() {
+        return new RequestStatistics();
+    }
+
+    /**
+     * Явно заданные в настройках инспектор или интерсептор (например, в тестах) не заменяются,
+     * в этом случае соответствующий счётчик остаётся нулевым.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer requestStatisticsHibernateCustomizer(RequestStatistics statistics) {
+        return properties -> {
+            properties.putIfAbsent(AvailableSettings.STATEMENT_INSPECTOR, statistics);
+            properties.putIfAbsent(AvailableSettings.INTERCEPTOR, statistics);
+        };
+    }
+
+    @Bean
+    public WebMvcConfigurer requestMetricsConfigurer(RequestStatistics statistics, MeterRegistry registry) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry interceptors) {
+                interceptors.addInterceptor(new RequestMetricsInterceptor(statistics, registry));
+            }
+        };
+    }
+}
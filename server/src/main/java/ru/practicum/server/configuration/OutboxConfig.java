@@ -0,0 +1,22 @@
+package ru.practicum.server.configuration;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.server.outbox.OutboxEvent;
+import ru.practicum.server.outbox.OutboxPublisher;
+
+@Configuration
+public class OutboxConfig {
+
+    /**
+     * Шина внутри процесса: каждое событие outbox публикуется как событие Spring и доставляется
+     * слушателям {@code @EventListener(OutboxEvent.class)} синхронно, в транзакции диспетчера.
+     */
+    @Bean
+    @ConditionalOnMissingBean(OutboxPublisher.class)
+    public OutboxPublisher outboxPublisher(ApplicationEventPublisher eventPublisher) {
+        return events -> events.forEach(eventPublisher::publishEvent);
+    }
+}
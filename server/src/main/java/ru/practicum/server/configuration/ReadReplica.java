@@ -0,0 +1,68 @@
+package ru.practicum.server.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Пул соединений с репликой и контроль её отставания. Пока отставание не проверено или превышает допустимое,
+ * транзакции только для чтения идут в основную базу, как и все остальные.
+ * <p>
+ * Пул не регистрируется как бин {@link DataSource}, чтобы не отключить автоконфигурацию основного.
+ */
+@Slf4j
+public class ReadReplica implements DisposableBean {
+
+    private final HikariDataSource pool;
+    private final JdbcTemplate jdbcTemplate;
+    private final String lagQuery;
+    private final Duration maxLag;
+    private volatile boolean available;
+
+    public ReadReplica(HikariDataSource pool, String lagQuery, Duration maxLag) {
+        this.pool = pool;
+        this.jdbcTemplate = new JdbcTemplate(pool);
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+    }
+
+    public HikariDataSource dataSource() {
+        return pool;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.datasource.replica.lag-check-interval}")
+    public void checkLag() {
+        boolean inSync;
+        try {
+            Double seconds = jdbcTemplate.queryForObject(lagQuery, Double.class);
+            inSync = seconds != null && seconds * 1000 <= maxLag.toMillis();
+            if (!inSync && available) {
+                log.warn("Отставание реплики {} с превышает допустимое {}, чтение переключено на основную базу",
+                        seconds, maxLag);
+            }
+        } catch (RuntimeException e) {
+            inSync = false;
+            if (available) {
+                log.warn("Реплика недоступна, чтение переключено на основную базу", e);
+            }
+        }
+        if (inSync && !available) {
+            log.info("Транзакции только для чтения направляются в реплику");
+        }
+        available = inSync;
+    }
+
+    @Override
+    public void destroy() {
+        pool.close();
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.server.configuration;
+
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Направляет соединения транзакций {@code @Transactional(readOnly = true)} сервисов в реплику, остальные - в основную базу.
+ * Транзакции только для чтения, которые репозитории Spring Data открывают сами при вызове вне транзакции сервиса,
+ * идут в основную базу: это поиск по id перед записью и чтение сразу после неё, отставание реплики для них недопустимо.
+ * Признак транзакции известен только после её начала, поэтому источник оборачивается
+ * в {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, который берёт соединение
+ * при первом запросе.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private static final String REPOSITORY_TRANSACTION_PREFIX = SimpleJpaRepository.class.getName() + ".";
+
+    private final ReadReplica replica;
+
+    public ReadReplicaRoutingDataSource(DataSource primary, DataSource replicaPool, ReadReplica replica) {
+        this.replica = replica;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replicaPool));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !startedByRepository()
+                && replica.isAvailable()
+                ? Route.REPLICA
+                : Route.PRIMARY;
+    }
+
+    private static boolean startedByRepository() {
+        String name = TransactionSynchronizationManager.getCurrentTransactionName();
+        return name != null && name.startsWith(REPOSITORY_TRANSACTION_PREFIX);
+    }
+}
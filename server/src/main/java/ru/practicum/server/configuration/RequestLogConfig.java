@@ -0,0 +1,28 @@
+package ru.practicum.server.configuration;
+
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+@Configuration
+public class RequestLogConfig {
+
+    /**
+     * Фильтр идёт первым, чтобы идентификатор запроса был в MDC и для остальных фильтров.
+     */
+    @Bean
+    public FilterRegistrationBean<RequestLogFilter> requestLogFilter(
+            @Value("${shareit.request-log.slow-threshold}") Duration slowThreshold,
+            @Value("${shareit.request-log.sample-rate}") double sampleRate) {
+        FilterRegistrationBean<RequestLogFilter> registration =
+                new FilterRegistrationBean<>(new RequestLogFilter(slowThreshold, sampleRate));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        registration.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC);
+        return registration;
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.server.configuration;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Присваивает HTTP-запросу идентификатор (из заголовка X-Request-Id или новый), кладёт его в MDC,
+ * чтобы он попал во все строки лога запроса, и по завершении пишет одну строку итога: метод, путь, статус,
+ * время и число SQL-запросов. Медленные запросы и ошибки сервера пишутся всегда, остальные - с долей sampleRate.
+ * <p>
+ * Асинхронные ответы (ленты) подводятся при завершении, поэтому фильтр вызывается и для ASYNC-диспетчеризации.
+ */
+@Slf4j
+public class RequestLogFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+    static final String MDC_KEY = "requestId";
+
+    private static final String REQUEST_ID_ATTRIBUTE = RequestLogFilter.class.getName() + ".requestId";
+    private static final String START_ATTRIBUTE = RequestLogFilter.class.getName() + ".start";
+    private static final int MAX_REQUEST_ID_LENGTH = 64;
+
+    private final long slowThresholdNanos;
+    private final double sampleRate;
+
+    public RequestLogFilter(Duration slowThreshold, double sampleRate) {
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String requestId = (String) request.getAttribute(REQUEST_ID_ATTRIBUTE);
+        if (requestId == null) {
+            requestId = requestId(request);
+            request.setAttribute(REQUEST_ID_ATTRIBUTE, requestId);
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+            response.setHeader(REQUEST_ID_HEADER, requestId);
+        }
+        MDC.put(MDC_KEY, requestId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (!isAsyncStarted(request)) {
+                logSummary(request, response, System.nanoTime() - (long) request.getAttribute(START_ATTRIBUTE));
+            }
+            MDC.remove(MDC_KEY);
+        }
+    }
+
+    private void logSummary(HttpServletRequest request, HttpServletResponse response, long elapsedNanos) {
+        boolean sampled = elapsedNanos >= slowThresholdNanos || response.getStatus() >= 500
+                || ThreadLocalRandom.current().nextDouble() < sampleRate;
+        if (!sampled || !log.isInfoEnabled()) return;
+        RequestStatistics.Counts counts =
+                (RequestStatistics.Counts) request.getAttribute(RequestMetricsInterceptor.COUNTS_ATTRIBUTE);
+        log.info("method={} path={} status={} durationMs={} statements={} entityLoads={}",
+                request.getMethod(), request.getRequestURI(), response.getStatus(), elapsedNanos / 1_000_000,
+                counts == null ? 0 : counts.getStatements(), counts == null ? 0 : counts.getEntityLoads());
+    }
+
+    private static String requestId(HttpServletRequest request) {
+        String header = request.getHeader(REQUEST_ID_HEADER);
+        if (header == null || header.isBlank() || header.length() > MAX_REQUEST_ID_LENGTH) {
+            return UUID.randomUUID().toString();
+        }
+        return header;
+    }
+}
@@ -0,0 +1,63 @@
+package ru.practicum.server.configuration;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Записывает число SQL-запросов и загруженных сущностей на каждый HTTP-запрос
+ * с тегами метода и шаблона пути, чтобы рост этих чисел (N+1) был виден по эндпоинтам.
+ */
+@RequiredArgsConstructor
+public class RequestMetricsInterceptor implements AsyncHandlerInterceptor {
+
+    static final String STATEMENTS = "shareit.jdbc.statements";
+    static final String ENTITY_LOADS = "shareit.hibernate.entity.loads";
+    static final String COUNTS_ATTRIBUTE = RequestMetricsInterceptor.class.getName() + ".counts";
+
+    private final RequestStatistics statistics;
+    private final MeterRegistry registry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        statistics.start();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        RequestStatistics.Counts counts = statistics.stop();
+        if (counts == null) {
+            return;
+        }
+        request.setAttribute(COUNTS_ATTRIBUTE, counts);
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Tags tags = Tags.of("method", request.getMethod(), "uri", pattern == null ? "UNKNOWN" : pattern.toString());
+        summary(STATEMENTS, "SQL-запросов на HTTP-запрос", tags).record(counts.getStatements());
+        summary(ENTITY_LOADS, "Загруженных сущностей на HTTP-запрос", tags).record(counts.getEntityLoads());
+    }
+
+    /**
+     * Потоковый ответ продолжается в другом потоке, а afterCompletion вызывается только после его завершения,
+     * поэтому счётчики этого потока сбрасываются здесь.
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        statistics.stop();
+    }
+
+    private DistributionSummary summary(String name, String description, Tags tags) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.server.configuration;
+
+import lombok.Getter;
+import org.hibernate.Interceptor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.Type;
+
+/**
+ * Считает SQL-запросы и загруженные Hibernate сущности в пределах одного HTTP-запроса.
+ * Запрос обрабатывается целиком в одном потоке, поэтому счётчики хранятся в ThreadLocal;
+ * вне запроса (между start и stop) ничего не считается.
+ */
+public class RequestStatistics implements StatementInspector, Interceptor {
+
+    private final ThreadLocal<Counts> current = new ThreadLocal<>();
+
+    public void start() {
+        current.set(new Counts());
+    }
+
+    public Counts stop() {
+        Counts counts = current.get();
+        current.remove();
+        return counts;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Counts counts = current.get();
+        if (counts != null) {
+            counts.statements++;
+        }
+        return sql;
+    }
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        Counts counts = current.get();
+        if (counts != null) {
+            counts.entityLoads++;
+        }
+        return false;
+    }
+
+    @Getter
+    public static class Counts {
+        private int statements;
+        private int entityLoads;
+    }
+}
@@ -0,0 +1,125 @@
+package ru.practicum.server.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.dto.booking.BookingDto;
+import ru.practicum.server.booking.Booking;
+import ru.practicum.server.booking.BookingRepository;
+import ru.practicum.server.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Сводка бронирований вещи (последнее и следующее бронирование), хранящаяся в самой вещи,
+ * чтобы просмотр вещей владельцем не перебирал все их бронирования.
+ * <p>
+ * Сводка меняется при создании бронирования и с течением времени: когда начинается следующее
+ * бронирование или завершается текущее. Второй момент записан в {@link Item#getBookingSummaryValidUntil()};
+ * после него сводка пересчитывается при чтении или планировщиком, который переводит её вперёд заранее.
+ * Изменять сводку можно только под блокировкой строки вещи.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ItemBookingSummary {
+
+    private static final int ROLL_FORWARD_BATCH = 500;
+
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public static boolean isStale(Item item, LocalDateTime now) {
+        return item.getBookingSummaryValidUntil() != null && !now.isBefore(item.getBookingSummaryValidUntil());
+    }
+
+    /**
+     * Учитывает новое бронирование без обращения к базе; устаревшая сводка пересчитывается целиком.
+     */
+    public void onBookingCreated(Item item, Booking booking, LocalDateTime now) {
+        if (isStale(item, now)) {
+            refresh(List.of(item), now);
+            return;
+        }
+        if (booking.getEnd().isBefore(now)) {
+            if (item.getLastBooking() == null || booking.getEnd().isAfter(item.getLastBooking().getEnd())) {
+                item.setLastBooking(booking);
+            }
+        } else {
+            limitValidity(item, booking.getEnd());
+        }
+        if (booking.getStart().isAfter(now)) {
+            if (item.getNextBooking() == null || booking.getStart().isBefore(item.getNextBooking().getStart())) {
+                item.setNextBooking(booking);
+            }
+            limitValidity(item, booking.getStart());
+        }
+    }
+
+    /**
+     * Пересчитывает сводку вещей по их бронированиям тремя запросами на всю пачку.
+     */
+    public void refresh(Collection<Item> items, LocalDateTime now) {
+        if (items.isEmpty()) return;
+        List<Long> itemIds = items.stream().map(Item::getId).toList();
+        Map<Long, Booking> lastBookings = mapByItemId(bookingRepository.findLastBookings(itemIds, now));
+        Map<Long, Booking> nextBookings = mapByItemId(bookingRepository.findNextBookings(itemIds, now));
+        Map<Long, LocalDateTime> endings = bookingRepository.findEndingBookings(itemIds, now).stream()
+                .collect(Collectors.toMap(BookingDto::getItemId, BookingDto::getEnd, (first, second) -> first));
+        for (Item item : items) {
+            Booking next = nextBookings.get(item.getId());
+            LocalDateTime ending = endings.get(item.getId());
+            item.setLastBooking(lastBookings.get(item.getId()));
+            item.setNextBooking(next);
+            item.setBookingSummaryValidUntil(ending);
+            if (next != null) {
+                limitValidity(item, next.getStart());
+            }
+        }
+    }
+
+    /**
+     * Заранее пересчитывает устаревшие сводки пачками, каждая пачка в своей транзакции.
+     */
+    @Scheduled(initialDelayString = "${shareit.booking-summary.roll-forward-interval}",
+            fixedDelayString = "${shareit.booking-summary.roll-forward-interval}")
+    public void rollForward() {
+        int total = 0;
+        Integer refreshed;
+        do {
+            refreshed = transactionTemplate.execute(status -> refreshStale(LocalDateTime.now()));
+            total += refreshed == null ? 0 : refreshed;
+        } while (refreshed != null && refreshed == ROLL_FORWARD_BATCH);
+        if (total > 0) {
+            log.debug("Пересчитаны сводки бронирований {} вещей", total);
+        }
+    }
+
+    private int refreshStale(LocalDateTime now) {
+        List<Item> items = itemRepository.findStaleBookingSummariesForUpdate(now, Limit.of(ROLL_FORWARD_BATCH));
+        refresh(items, now);
+        return items.size();
+    }
+
+    private static void limitValidity(Item item, LocalDateTime moment) {
+        LocalDateTime validUntil = item.getBookingSummaryValidUntil();
+        if (validUntil == null || moment.isBefore(validUntil)) {
+            item.setBookingSummaryValidUntil(moment);
+        }
+    }
+
+    private static Map<Long, Booking> mapByItemId(List<Booking> bookings) {
+        return bookings.stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity(),
+                        (first, second) -> first));
+    }
+}
@@ -2,12 +2,15 @@ package ru.practicum.server.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.dto.item.CommentDto;
+import ru.practicum.dto.item.ItemAvailabilityDto;
 import ru.practicum.dto.item.ItemDto;
 import ru.practicum.dto.item.NewCommentDto;
 import ru.practicum.dto.item.OwnerItemDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -23,19 +26,29 @@ public class ItemController {
 
     @GetMapping
     public List<OwnerItemDto> findAll(@RequestHeader("X-Sharer-User-Id") long userId) {
-        log.info("Поступил GET запрос на все товары пользователя с id = {}", userId);
+        log.debug("Поступил GET запрос на все товары пользователя с id = {}", userId);
         return service.findAllForUser(userId);
     }
 
     @GetMapping("/{itemId}")
     public ItemDto findById(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable long itemId) {
-        log.info("Поступил GET запрос на товар с id = {}", itemId);
+        log.debug("Поступил GET запрос на товар с id = {}", itemId);
         return service.findById(userId, itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto findAvailability(@PathVariable long itemId,
+                                                @RequestParam(required = false)
+                                                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                @RequestParam(required = false)
+                                                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.debug("Поступил GET запрос на свободные периоды товара с id = {} с {} по {}", itemId, from, to);
+        return service.findAvailability(itemId, from, to);
+    }
+
     @PostMapping
     public ItemDto create(@RequestHeader("X-Sharer-User-Id") long userId, @RequestBody ItemDto itemDto) {
-        log.info("Поступил POST запрос на добавление товара {} для пользователя с id = {}", itemDto, userId);
+        log.debug("Поступил POST запрос на добавление товара {} для пользователя с id = {}", itemDto, userId);
         return service.create(userId, itemDto);
     }
 
@@ -43,28 +56,34 @@ public class ItemController {
     public ItemDto update(@RequestHeader("X-Sharer-User-Id") long userId, @RequestBody ItemDto itemDto,
                           @PathVariable long itemId) {
         itemDto.setId(itemId);
-        log.info("Поступил PATCH запрос от пользователя с id = {} для товара {}", userId, itemDto);
+        log.debug("Поступил PATCH запрос от пользователя с id = {} для товара {}", userId, itemDto);
         return service.update(userId, itemDto);
     }
 
     @DeleteMapping("/{itemId}")
     public void delete(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable long itemId) {
-        log.info("Поступил DELETE запрос от пользователя с id = {} на удаление товара с id = {}", userId, itemId);
+        log.debug("Поступил DELETE запрос от пользователя с id = {} на удаление товара с id = {}", userId, itemId);
         service.delete(userId, itemId);
     }
 
     @GetMapping("/search")
-    public List<ItemDto> search(@RequestParam String text) {
-        log.info("Поступил GET запрос на поиск товара, содержаего: {}", text);
+    public List<ItemDto> search(@RequestParam String text,
+                                @RequestParam(required = false)
+                                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                @RequestParam(required = false)
+                                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                                @RequestParam(defaultValue = "0") int from,
+                                @RequestParam(defaultValue = "20") int size) {
+        log.debug("Поступил GET запрос на поиск товара, содержаего: {}, свободного в период {} - {}", text, start, end);
         if (text.isBlank()) return List.of();
-        return service.search(text);
+        return service.search(text, start, end, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
     public CommentDto createComment(@RequestHeader("X-Sharer-User-Id") long userId,
                                     @PathVariable long itemId,
                                     @RequestBody NewCommentDto dto) {
-        log.info("Поступил Post запрос на создание комменатрия к товару с id = {}", itemId);
+        log.debug("Поступил Post запрос на создание комменатрия к товару с id = {}", itemId);
         return service.createComment(userId, itemId, dto);
     }
 }
@@ -6,6 +6,7 @@ import ru.practicum.dto.booking.BookingDto;
 import ru.practicum.dto.item.CommentDto;
 import ru.practicum.dto.item.ItemDto;
 import ru.practicum.dto.item.OwnerItemDto;
+import ru.practicum.server.booking.BookingMapper;
 import ru.practicum.server.item.model.Item;
 import ru.practicum.server.request.ItemRequest;
 import ru.practicum.server.user.User;
@@ -45,9 +46,24 @@ public final class ItemMapper {
         updatedItem.setAvailable(itemDto.hasIsAvailable() ? itemDto.getAvailable() : oldItem.isAvailable());
         updatedItem.setId(itemDto.getId());
         updatedItem.setOwner(oldItem.getOwner());
+        updatedItem.setRequest(oldItem.getRequest());
+        updatedItem.setLastBooking(oldItem.getLastBooking());
+        updatedItem.setNextBooking(oldItem.getNextBooking());
+        updatedItem.setBookingSummaryValidUntil(oldItem.getBookingSummaryValidUntil());
         return updatedItem;
     }
 
+    /**
+     * Последнее и следующее бронирования берутся из сводки, хранящейся в вещи.
+     */
+    public static OwnerItemDto mapToOwnerItemDto(Item item, List<CommentDto> comments) {
+        return mapToOwnerItemDto(
+                item,
+                item.getLastBooking() != null ? BookingMapper.mapToBookingDto(item.getLastBooking()) : null,
+                item.getNextBooking() != null ? BookingMapper.mapToBookingDto(item.getNextBooking()) : null,
+                comments);
+    }
+
     public static OwnerItemDto mapToOwnerItemDto(Item item, BookingDto last, BookingDto next, List<CommentDto> comments) {
         OwnerItemDto itemDto = new OwnerItemDto();
         itemDto.setId(item.getId());
@@ -0,0 +1,53 @@
+package ru.practicum.server.item;
+
+import ru.practicum.dto.item.ItemAvailabilityDto;
+import ru.practicum.server.booking.BookingInterval;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Периоды ожидающих и подтверждённых бронирований вещи, заканчивающихся после since, в порядке начала.
+ */
+public record ItemOccupancy(boolean available, LocalDateTime since, List<BookingInterval> bookings) {
+
+    public boolean covers(LocalDateTime from) {
+        return !from.isBefore(since);
+    }
+
+    /**
+     * Пересекающиеся и смежные бронирования сливаются в занятые интервалы, промежутки между ними
+     * становятся свободными; всё за один проход по бронированиям, упорядоченным по началу.
+     */
+    public ItemAvailabilityDto availability(long itemId, LocalDateTime from, LocalDateTime to) {
+        List<ItemAvailabilityDto.Interval> free = new ArrayList<>();
+        List<ItemAvailabilityDto.Interval> occupied = new ArrayList<>();
+        LocalDateTime freeSince = from;
+        LocalDateTime start = null;
+        LocalDateTime end = null;
+        for (BookingInterval booking : bookings) {
+            if (!booking.start().isBefore(to)) break;
+            if (!booking.end().isAfter(from)) continue;
+            LocalDateTime bookingStart = booking.start().isBefore(from) ? from : booking.start();
+            LocalDateTime bookingEnd = booking.end().isAfter(to) ? to : booking.end();
+            if (end != null && !bookingStart.isAfter(end)) {
+                if (bookingEnd.isAfter(end)) end = bookingEnd;
+                continue;
+            }
+            if (end != null) {
+                occupied.add(new ItemAvailabilityDto.Interval(start, end));
+                freeSince = end;
+            }
+            if (bookingStart.isAfter(freeSince)) free.add(new ItemAvailabilityDto.Interval(freeSince, bookingStart));
+            start = bookingStart;
+            end = bookingEnd;
+        }
+        if (end != null) {
+            occupied.add(new ItemAvailabilityDto.Interval(start, end));
+            freeSince = end;
+        }
+        if (freeSince.isBefore(to)) free.add(new ItemAvailabilityDto.Interval(freeSince, to));
+        return new ItemAvailabilityDto(itemId, available, from, to, available ? free : List.of(), occupied);
+    }
+}
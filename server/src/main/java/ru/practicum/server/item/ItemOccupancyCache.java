@@ -0,0 +1,91 @@
+package ru.practicum.server.item;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.server.booking.BookingRepository;
+import ru.practicum.server.exceptions.NotFoundException;
+import ru.practicum.server.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Кэш занятости вещей с момента загрузки. Записи сбрасываются после фиксации транзакций, создающих бронирования
+ * и решения по ним ({@link ru.practicum.server.booking.BookingServiceImpl}), а также изменяющих и удаляющих вещь.
+ * Загрузка идёт в транзакции на запись, поэтому читает основную базу, а не отстающую реплику.
+ * <p>
+ * Загрузка может прочитать данные до фиксации записи, а положить их в кэш уже после сброса. Поэтому сброс
+ * сначала увеличивает счётчик версий вещи, а загрузка, положив запись, сверяет счётчик и при изменении убирает её.
+ * Счётчики общие для вещей с одинаковым остатком id: чужой сброс лишь заставит перечитать занятость из базы.
+ */
+@Component
+public class ItemOccupancyCache {
+    public static final String ITEM_OCCUPANCY = "itemOccupancy";
+
+    private static final int VERSION_STRIPES = 1024;
+
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache cache;
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    public ItemOccupancyCache(ItemRepository itemRepository, BookingRepository bookingRepository,
+                              PlatformTransactionManager transactionManager, CacheManager cacheManager) {
+        this.itemRepository = itemRepository;
+        this.bookingRepository = bookingRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // сброс и так откладывается до фиксации, а запись при загрузке должна попасть в кэш до сверки версии
+        Cache cache = Objects.requireNonNull(cacheManager.getCache(ITEM_OCCUPANCY), "Не настроен кэш " + ITEM_OCCUPANCY);
+        this.cache = cache instanceof TransactionAwareCacheDecorator decorator ? decorator.getTargetCache() : cache;
+    }
+
+    public ItemOccupancy find(long itemId) {
+        ItemOccupancy cached = cache.get(itemId, ItemOccupancy.class);
+        if (cached != null) return cached;
+        long version = versions.get(stripe(itemId));
+        ItemOccupancy occupancy = transactionTemplate.execute(status -> load(itemId));
+        cache.put(itemId, occupancy);
+        if (versions.get(stripe(itemId)) != version) cache.evict(itemId);
+        return occupancy;
+    }
+
+    /**
+     * Сбрасывает запись после фиксации текущей транзакции; при откате данные не менялись, и запись остаётся.
+     */
+    public void evict(long itemId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(itemId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(itemId);
+            }
+        });
+    }
+
+    private ItemOccupancy load(long itemId) {
+        Item item = itemRepository.findById(itemId)
+                .orElseThrow(() -> new NotFoundException("Товар с id = " + itemId + " не найден"));
+        LocalDateTime now = LocalDateTime.now();
+        return new ItemOccupancy(item.isAvailable(), now, bookingRepository.findOccupiedIntervalsAfter(itemId, now));
+    }
+
+    private void invalidate(long itemId) {
+        versions.incrementAndGet(stripe(itemId));
+        cache.evict(itemId);
+    }
+
+    private static int stripe(long itemId) {
+        return Long.hashCode(itemId) & (VERSION_STRIPES - 1);
+    }
+}
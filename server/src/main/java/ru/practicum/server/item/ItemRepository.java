@@ -1,33 +1,130 @@
 package ru.practicum.server.item;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.server.item.model.Item;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
+    @EntityGraph(attributePaths = {"lastBooking", "nextBooking"})
     List<Item> findAllByOwnerId(long userId);
 
+    Slice<Item> findAllBy(Pageable pageable);
+
+    @Query("select item.id from Item item where item.owner.id = :ownerId")
+    List<Long> findIdsByOwnerId(long ownerId);
+
+    List<Item> findAllByRequestIdIn(Collection<Long> requestIds);
+
     @Query("""
-             select item
-             from Item item
-             where item.available = true
-               and (
-                     lower(item.name) like lower(concat('%', :text, '%'))
-                     or lower(item.description) like lower(concat('%', :text, '%'))
-                   )
+            select item
+            from Item item
+            where item.available = true
+                and (
+                    lower(item.name) like lower(concat('%', :text, '%'))
+                    or lower(item.description) like lower(concat('%', :text, '%'))
+                )
+            order by
+                case
+                    when lower(item.name) = lower(:text) then 0
+                    when lower(item.name) like lower(concat(:text, '%')) then 1
+                    when lower(item.name) like lower(concat('%', :text, '%')) then 2
+                    when lower(item.description) like lower(concat(:text, '%')) then 3
+                    else 4
+                end,
+                item.id
             """)
-    List<Item> search(@Param("text") String text);
+    List<Item> search(@Param("text") String text, Pageable pageable);
+
+    /**
+     * Как {@link #search}, но только вещи без подтверждённых бронирований, пересекающих период [start, end).
+     * Бронирования проверяются подзапросом NOT EXISTS по индексу периодов вещи, а не в Java.
+     */
+    @Query("""
+            select item
+            from Item item
+            where item.available = true
+                and (
+                    lower(item.name) like lower(concat('%', :text, '%'))
+                    or lower(item.description) like lower(concat('%', :text, '%'))
+                )
+                and not exists (
+                    select 1
+                    from Booking booking
+                    where booking.item.id = item.id
+                        and booking.status = 'APPROVED'
+                        and booking.start < :end
+                        and booking.end > :start
+                )
+            order by
+                case
+                    when lower(item.name) = lower(:text) then 0
+                    when lower(item.name) like lower(concat(:text, '%')) then 1
+                    when lower(item.name) like lower(concat('%', :text, '%')) then 2
+                    when lower(item.description) like lower(concat(:text, '%')) then 3
+                    else 4
+                end,
+                item.id
+            """)
+    List<Item> searchAvailable(@Param("text") String text,
+                               @Param("start") LocalDateTime start,
+                               @Param("end") LocalDateTime end,
+                               Pageable pageable);
 
     @Query("""
             select i
             from Item i
-            left join fetch i.bookings
+            left join fetch i.lastBooking
+            left join fetch i.nextBooking
             where i.id = :id
             """)
     Item findByIdWithRelations(long id);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select item from Item item where item.id = :id")
+    Optional<Item> findByIdForUpdate(long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select item from Item item where item.id in :ids order by item.id")
+    List<Item> findAllByIdForUpdate(Collection<Long> ids);
+
+    /**
+     * Вещи с устаревшей сводкой бронирований; строки, заблокированные другими транзакциями, пропускаются.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = "-2"))
+    @Query("""
+            select item
+            from Item item
+            where item.bookingSummaryValidUntil <= :now
+            order by item.id
+            """)
+    List<Item> findStaleBookingSummariesForUpdate(LocalDateTime now, Limit limit);
+
+    /**
+     * Удаление пользователя каскадно удаляет его бронирования, на которые могут ссылаться сводки чужих вещей.
+     */
+    @Modifying
+    @Query("""
+            update Item item
+            set item.bookingSummaryValidUntil = :now
+            where item.id in (select booking.item.id from Booking booking where booking.booker.id = :bookerId)
+            """)
+    int markBookingSummariesStale(long bookerId, LocalDateTime now);
 }
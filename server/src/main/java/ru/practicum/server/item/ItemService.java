@@ -1,10 +1,12 @@
 package ru.practicum.server.item;
 
 import ru.practicum.dto.item.CommentDto;
+import ru.practicum.dto.item.ItemAvailabilityDto;
 import ru.practicum.dto.item.ItemDto;
 import ru.practicum.dto.item.NewCommentDto;
 import ru.practicum.dto.item.OwnerItemDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -19,7 +21,9 @@ public interface ItemService {
 
     void delete(long userId, long id);
 
-    List<ItemDto> search(String text);
+    List<ItemDto> search(String text, LocalDateTime start, LocalDateTime end, int from, int size);
 
     CommentDto createComment(long userId, long itemId, NewCommentDto dto);
+
+    ItemAvailabilityDto findAvailability(long itemId, LocalDateTime from, LocalDateTime to);
 }
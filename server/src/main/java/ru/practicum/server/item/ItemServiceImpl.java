@@ -1,12 +1,15 @@
 package ru.practicum.server.item;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.dto.item.ItemAvailabilityDto;
 import ru.practicum.dto.item.NewCommentDto;
+import ru.practicum.dto.user.UserDto;
 import ru.practicum.server.booking.Booking;
-import ru.practicum.server.booking.BookingMapper;
 import ru.practicum.server.booking.BookingRepository;
+import ru.practicum.server.exceptions.ConditionsNotMetException;
 import ru.practicum.server.exceptions.InvalidOperationException;
 import ru.practicum.server.exceptions.NotFoundException;
 import ru.practicum.dto.item.CommentDto;
@@ -14,69 +17,83 @@ import ru.practicum.dto.item.ItemDto;
 import ru.practicum.dto.item.OwnerItemDto;
 import ru.practicum.server.item.model.Comment;
 import ru.practicum.server.item.model.Item;
+import ru.practicum.server.item.search.ItemSearcher;
+import ru.practicum.server.pagination.Cursors;
+import ru.practicum.server.pagination.OffsetPageRequest;
 import ru.practicum.server.request.ItemRequest;
+import ru.practicum.server.request.ItemRequestFeed;
 import ru.practicum.server.request.ItemRequestRepository;
 import ru.practicum.server.user.User;
+import ru.practicum.server.user.UserCache;
 import ru.practicum.server.user.UserRepository;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "shareit.service", histogram = true)
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
 
+    private static final Duration DEFAULT_AVAILABILITY_PERIOD = Duration.ofDays(30);
+    private static final Duration MAX_AVAILABILITY_PERIOD = Duration.ofDays(366);
+
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final UserCache userCache;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository requestRepository;
+    private final ItemSearcher searcher;
+    private final ItemBookingSummary bookingSummary;
+    private final ItemRequestFeed requestFeed;
+    private final ItemOccupancyCache occupancyCache;
 
     @Transactional
     @Override
     public List<OwnerItemDto> findAllForUser(long userId) {
         List<Item> items = itemRepository.findAllByOwnerId(userId);
+        if (items.isEmpty()) return List.of();
+        refreshStaleSummaries(items, LocalDateTime.now());
+        Map<Long, List<CommentDto>> comments = CommentMapper.mapToDto(commentRepository.findAllByItemIn(items))
+                .stream()
+                .collect(Collectors.groupingBy(CommentDto::getItemId));
         return items.stream()
-                .map(this::mapItemWithLastAndNextBookings)
+                .map(item -> ItemMapper.mapToOwnerItemDto(item, comments.getOrDefault(item.getId(), List.of())))
                 .toList();
     }
 
+    @Transactional
     @Override
     public ItemDto findById(long userId, long itemId) {
         Item item = itemRepository.findByIdWithRelations(itemId);
-        return item.getOwner().getId() == userId ? mapItemWithLastAndNextBookings(item) : ItemMapper.mapToItemDto(item);
-    }
-
-    private OwnerItemDto mapItemWithLastAndNextBookings(Item item) {
-        LocalDateTime now = LocalDateTime.now();
-
-        Booking lastBooking = null;
-        Booking nextBooking = null;
-
-        if (item.getBookings() != null) {
-            lastBooking = item.getBookings().stream()
-                    .filter(b -> b.getEnd() != null && b.getEnd().isBefore(now))
-                    .max(Comparator.comparing(Booking::getEnd))
-                    .orElse(null);
-
-            nextBooking = item.getBookings().stream()
-                    .filter(b -> b.getStart() != null && b.getStart().isAfter(now))
-                    .min(Comparator.comparing(Booking::getStart))
-                    .orElse(null);
+        if (item.getOwner().getId() != userId) {
+            return ItemMapper.mapToItemDto(item);
         }
-
-        return ItemMapper.mapToOwnerItemDto(
-                item,
-                lastBooking != null ? BookingMapper.mapToBookingDto(lastBooking) : null,
-                nextBooking != null ? BookingMapper.mapToBookingDto(nextBooking) : null,
-                CommentMapper.mapToDto(item.getComments()));
+        refreshStaleSummaries(List.of(item), LocalDateTime.now());
+        return ItemMapper.mapToOwnerItemDto(item, CommentMapper.mapToDto(item.getComments()));
     }
 
+    /**
+     * Устаревшие сводки пересчитываются под блокировкой вещей, чтобы не разойтись с одновременным бронированием.
+     */
+    private void refreshStaleSummaries(List<Item> items, LocalDateTime now) {
+        List<Long> staleIds = items.stream()
+                .filter(item -> ItemBookingSummary.isStale(item, now))
+                .map(Item::getId)
+                .toList();
+        if (staleIds.isEmpty()) return;
+        bookingSummary.refresh(itemRepository.findAllByIdForUpdate(staleIds), now);
+    }
 
+    @Transactional
     @Override
     public ItemDto create(long userId, ItemDto itemDto) {
-        User user = getUser(userId);
+        getUserProfile(userId);
+        User user = userRepository.getReferenceById(userId);
         ItemRequest request = null;
         if (itemDto.getRequestId() != null) {
             request = requestRepository.findById(itemDto.getRequestId())
@@ -84,56 +101,98 @@ public class ItemServiceImpl implements ItemService {
         }
         Item item = ItemMapper.mapToItem(user, itemDto, request);
         item = itemRepository.save(item);
-        return ItemMapper.mapToItemDto(item);
+        searcher.index(item);
+        ItemDto created = ItemMapper.mapToItemDto(item);
+        if (request != null) requestFeed.itemAnswered(userId, created);
+        return created;
     }
 
+    @Transactional
     @Override
     public ItemDto update(long userId, ItemDto itemDto) {
-        if (!userRepository.existsById(userId))
-            throw new NotFoundException("Пользователь с id = " + userId + " не найден");
+        getUserProfile(userId);
         Item oldItem = getItem(itemDto.getId());
         if (oldItem.getOwner().getId() != userId)
             throw new InvalidOperationException("Можно редактировать только свои товары");
         Item updatedItem = ItemMapper.updateFields(oldItem, itemDto);
         updatedItem = itemRepository.save(updatedItem);
+        searcher.index(updatedItem);
+        occupancyCache.evict(updatedItem.getId());
         return ItemMapper.mapToItemDto(updatedItem);
     }
 
+    @Transactional
     @Override
     public void delete(long userId, long id) {
         Item item = getItem(id);
         if (item.getOwner().getId() != userId) throw new InvalidOperationException("Можно удалять только свои товары");
         itemRepository.delete(item);
+        searcher.remove(id);
+        occupancyCache.evict(id);
     }
 
+    @Transactional(readOnly = true)
     @Override
-    public List<ItemDto> search(String text) {
-        return itemRepository.search(text).stream()
+    public List<ItemDto> search(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        if (from < 0 || size < 1)
+            throw new ConditionsNotMetException("Некорректные параметры страницы: from = " + from + ", size = " + size);
+        if ((start == null) != (end == null))
+            throw new ConditionsNotMetException("Период поиска задаётся и началом, и концом");
+        if (start != null && !end.isAfter(start))
+            throw new ConditionsNotMetException("Конец периода должен быть позже начала");
+        // шлюз ограничивает size, но сервер не отдаёт больше MAX_PAGE_SIZE и при прямых вызовах
+        OffsetPageRequest page = OffsetPageRequest.ofOffset(from, Math.min(size, Cursors.MAX_PAGE_SIZE));
+        List<Item> items = start == null
+                ? searcher.search(text, page)
+                : searcher.searchAvailable(text, start, end, page);
+        return items.stream()
                 .map(ItemMapper::mapToItemDto)
                 .toList();
     }
 
+    @Transactional
     @Override
     public CommentDto createComment(long userId, long itemId, NewCommentDto dto) {
-        User user = getUser(userId);
+        UserDto author = getUserProfile(userId);
+        User user = userRepository.getReferenceById(userId);
         Item item = getItem(itemId);
         List<Booking> bookings = bookingRepository.findBookingsByItemAndBooker(item, user, LocalDateTime.now());
         if (bookings.isEmpty())
             throw new InvalidOperationException("Можно оставлять отзыв только на товары, на которые было сделано бронирование");
         Comment comment = CommentMapper.mapToComment(dto);
-        comment.setAuthorName(user.getName());
+        comment.setAuthorName(author.getName());
         comment.setItem(item);
         Comment saved = commentRepository.save(comment);
         return new CommentDto(saved.getId(), saved.getText(), saved.getAuthorName(), saved.getCreated(), saved.getItem().getId());
     }
 
+    /**
+     * Период по умолчанию - 30 дней с текущего момента. Периоды, начинающиеся раньше загруженной
+     * в кэш занятости, считаются по базе.
+     */
+    @Override
+    public ItemAvailabilityDto findAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime start = from == null ? LocalDateTime.now() : from;
+        LocalDateTime end = to == null ? start.plus(DEFAULT_AVAILABILITY_PERIOD) : to;
+        if (!end.isAfter(start))
+            throw new ConditionsNotMetException("Конец периода должен быть позже начала");
+        if (Duration.between(start, end).compareTo(MAX_AVAILABILITY_PERIOD) > 0)
+            throw new ConditionsNotMetException("Период не может быть длиннее " + MAX_AVAILABILITY_PERIOD.toDays() + " дней");
+        ItemOccupancy occupancy = occupancyCache.find(itemId);
+        if (!occupancy.covers(start)) {
+            occupancy = new ItemOccupancy(occupancy.available(), start,
+                    bookingRepository.findOccupiedIntervals(itemId, start, end));
+        }
+        return occupancy.availability(itemId, start, end);
+    }
+
     private Item getItem(long id) {
         return itemRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Item с id = " + id + " не найден"));
     }
 
-    private User getUser(long id) {
-        return userRepository.findById(id)
+    private UserDto getUserProfile(long id) {
+        return userCache.find(id)
                 .orElseThrow(() -> new NotFoundException("Пользователь с id = " + id + " не найден"));
     }
 }
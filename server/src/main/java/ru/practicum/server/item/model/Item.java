@@ -4,10 +4,12 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.DynamicUpdate;
 import ru.practicum.server.booking.Booking;
 import ru.practicum.server.request.ItemRequest;
 import ru.practicum.server.user.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -15,12 +17,14 @@ import java.util.List;
  */
 @Entity
 @Table(name = "items")
+@DynamicUpdate
 @Getter
 @Setter
 public class Item {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -49,4 +53,24 @@ public class Item {
     @JoinColumn(name = "request_id")
     private ItemRequest request;
 
+    /**
+     * Сводка бронирований для владельца: последнее завершившееся и ближайшее будущее бронирование.
+     * Поддерживается {@link ru.practicum.server.item.ItemBookingSummary}; обновление только изменённых
+     * колонок ({@link DynamicUpdate}) не даёт пересчёту сводки и редактированию вещи затереть друг друга.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "last_booking_id")
+    private Booking lastBooking;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "next_booking_id")
+    private Booking nextBooking;
+
+    /**
+     * Момент, когда сводка устареет без новых бронирований: начало следующего бронирования
+     * или ближайшее окончание текущего; null, если таких нет.
+     */
+    @Column(name = "booking_summary_valid_until")
+    private LocalDateTime bookingSummaryValidUntil;
+
 }
@@ -0,0 +1,41 @@
+package ru.practicum.server.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.server.item.ItemRepository;
+import ru.practicum.server.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "database", matchIfMissing = true)
+@RequiredArgsConstructor
+public class DatabaseItemSearcher implements ItemSearcher {
+
+    private final ItemRepository repository;
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        return repository.search(text, pageable);
+    }
+
+    @Override
+    public List<Item> searchAvailable(String text, LocalDateTime start, LocalDateTime end, Pageable pageable) {
+        return repository.searchAvailable(text, start, end, pageable);
+    }
+
+    @Override
+    public void index(Item item) {
+    }
+
+    @Override
+    public void remove(long itemId) {
+    }
+
+    @Override
+    public void removeOwnedBy(long ownerId) {
+    }
+}
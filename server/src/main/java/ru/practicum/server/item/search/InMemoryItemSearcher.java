@@ -0,0 +1,105 @@
+package ru.practicum.server.item.search;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.server.item.ItemRepository;
+import ru.practicum.server.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Поиск по инвертированному индексу в памяти процесса. Индекс строится при старте
+ * и обновляется после фиксации транзакций, создающих, изменяющих и удаляющих товары через этот
+ * экземпляр сервера, поэтому режим подходит только для развёртывания в одном экземпляре.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "memory")
+@RequiredArgsConstructor
+@Slf4j
+public class InMemoryItemSearcher implements ItemSearcher {
+
+    private static final int BUILD_BATCH_SIZE = 1000;
+
+    private final ItemRepository repository;
+    private final InvertedIndex index = new InvertedIndex();
+
+    @PostConstruct
+    void build() {
+        Pageable page = PageRequest.of(0, BUILD_BATCH_SIZE, Sort.by("id"));
+        Slice<Item> items;
+        do {
+            items = repository.findAllBy(page);
+            items.forEach(item -> index.put(item.getId(), item.getName(), item.getDescription(), item.isAvailable()));
+            page = items.nextPageable();
+        } while (items.hasNext());
+        log.info("Поисковый индекс товаров построен, проиндексировано товаров: {}", index.size());
+    }
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        long[] ids = index.search(text, pageable.getOffset(), pageable.getPageSize());
+        if (ids.length == 0) return List.of();
+        Map<Long, Item> items = repository.findAllById(Arrays.stream(ids).boxed().toList()).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return Arrays.stream(ids)
+                .mapToObj(items::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Бронирования в индекс не попадают, поэтому поиск свободных на период вещей идёт по базе.
+     */
+    @Override
+    public List<Item> searchAvailable(String text, LocalDateTime start, LocalDateTime end, Pageable pageable) {
+        return repository.searchAvailable(text, start, end, pageable);
+    }
+
+    @Override
+    public void index(Item item) {
+        long id = item.getId();
+        String name = item.getName();
+        String description = item.getDescription();
+        boolean available = item.isAvailable();
+        afterCommit(() -> index.put(id, name, description, available));
+    }
+
+    @Override
+    public void remove(long itemId) {
+        afterCommit(() -> index.remove(itemId));
+    }
+
+    @Override
+    public void removeOwnedBy(long ownerId) {
+        List<Long> itemIds = repository.findIdsByOwnerId(ownerId);
+        afterCommit(() -> itemIds.forEach(index::remove));
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,204 @@
+package ru.practicum.server.item.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Инвертированный индекс товаров: токен названия или описания отображается в отсортированный
+ * список идентификаторов товаров. Токены запроса сопоставляются с токенами индекса по префиксу,
+ * несколько токенов объединяются по И. Найденные товары упорядочиваются так же, как в
+ * {@link ru.practicum.server.item.ItemRepository#search}: по совпадению с названием, затем с описанием, затем по id.
+ */
+class InvertedIndex {
+
+    private final NavigableMap<String, PostingList> postings = new TreeMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    void put(long itemId, String name, String description, boolean isAvailable) {
+        Set<String> tokens = new TreeSet<>();
+        tokens.addAll(tokenize(name));
+        tokens.addAll(tokenize(description));
+        lock.writeLock().lock();
+        try {
+            removeDocument(itemId);
+            tokens.forEach(token -> postings.computeIfAbsent(token, key -> new PostingList()).add(itemId));
+            documents.put(itemId, new Document(tokens, lowerCase(name), lowerCase(description), isAvailable));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long itemId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    long[] search(String text, long offset, int limit) {
+        List<String> queryTokens = tokenize(text);
+        if (queryTokens.isEmpty()) return new long[0];
+        lock.readLock().lock();
+        try {
+            long[] matches = null;
+            for (String token : queryTokens) {
+                long[] tokenMatches = prefixMatches(token);
+                matches = matches == null ? tokenMatches : intersect(matches, tokenMatches);
+                if (matches.length == 0) return matches;
+            }
+            return page(matches, lowerCase(text), offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null) return List.of();
+        List<String> tokens = new ArrayList<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) tokens.add(token);
+        }
+        return tokens;
+    }
+
+    private void removeDocument(long itemId) {
+        Document document = documents.remove(itemId);
+        if (document == null) return;
+        for (String token : document.tokens()) {
+            PostingList list = postings.get(token);
+            list.remove(itemId);
+            if (list.isEmpty()) postings.remove(token);
+        }
+    }
+
+    private long[] prefixMatches(String prefix) {
+        long[] result = new long[0];
+        for (PostingList list : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            result = union(result, list.ids, list.size);
+        }
+        return result;
+    }
+
+    private long[] page(long[] ids, String text, long offset, int limit) {
+        return Arrays.stream(ids)
+                .filter(id -> documents.get(id).available())
+                .mapToObj(id -> new Candidate(id, documents.get(id).rank(text)))
+                .sorted(Comparator.comparingInt(Candidate::rank).thenComparingLong(Candidate::id))
+                .skip(offset)
+                .limit(limit)
+                .mapToLong(Candidate::id)
+                .toArray();
+    }
+
+    private static String lowerCase(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static long[] union(long[] left, long[] right, int rightSize) {
+        long[] result = new long[left.length + rightSize];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < left.length && j < rightSize) {
+            if (left[i] < right[j]) {
+                result[k++] = left[i++];
+            } else if (left[i] > right[j]) {
+                result[k++] = right[j++];
+            } else {
+                result[k++] = left[i++];
+                j++;
+            }
+        }
+        while (i < left.length) result[k++] = left[i++];
+        while (j < rightSize) result[k++] = right[j++];
+        return Arrays.copyOf(result, k);
+    }
+
+    private static long[] intersect(long[] left, long[] right) {
+        long[] result = new long[Math.min(left.length, right.length)];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[k++] = left[i++];
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, k);
+    }
+
+    private record Document(Set<String> tokens, String name, String description, boolean available) {
+
+        /**
+         * Ранг совпадения, как в ORDER BY запроса поиска в базе.
+         */
+        int rank(String text) {
+            if (name.equals(text)) return 0;
+            if (name.startsWith(text)) return 1;
+            if (name.contains(text)) return 2;
+            if (description.startsWith(text)) return 3;
+            return 4;
+        }
+    }
+
+    /**
+     * Найденный товар с рангом, посчитанным один раз до сортировки.
+     */
+    private record Candidate(long id, int rank) {
+    }
+
+    private static final class PostingList {
+
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) return;
+            int insertAt = -position - 1;
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        void remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) return;
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+    }
+}
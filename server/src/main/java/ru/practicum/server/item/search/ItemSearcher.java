@@ -0,0 +1,30 @@
+package ru.practicum.server.item.search;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.server.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ItemSearcher {
+
+    List<Item> search(String text, Pageable pageable);
+
+    /**
+     * Найденные вещи без подтверждённых бронирований, пересекающих период [start, end).
+     */
+    List<Item> searchAvailable(String text, LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+    /**
+     * Изменения индекса применяются после фиксации текущей транзакции, чтобы откат не оставлял в нём
+     * несуществующих или устаревших товаров.
+     */
+    void index(Item item);
+
+    void remove(long itemId);
+
+    /**
+     * Убирает товары пользователя, которые база удаляет каскадом вместе с ним. Вызывается до удаления.
+     */
+    void removeOwnedBy(long ownerId);
+}
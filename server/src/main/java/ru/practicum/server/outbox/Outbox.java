@@ -0,0 +1,29 @@
+package ru.practicum.server.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Запись событий в таблицу outbox. Событие сохраняется в транзакции изменения, которое его породило,
+ * и публикуется {@link OutboxDispatcher} только после её фиксации, так что сервис не ждёт потребителей.
+ */
+@Component
+@RequiredArgsConstructor
+public class Outbox {
+
+    private final OutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(String type, long aggregateId, Object payload) {
+        try {
+            outboxRepository.save(new OutboxEvent(type, aggregateId, objectMapper.writeValueAsString(payload)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать событие " + type, e);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.server.outbox;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Публикует события из outbox пачками в порядке записи и удаляет опубликованные в той же транзакции.
+ * Если публикация не удалась, пачка остаётся в таблице до следующего запуска.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxDispatcher {
+
+    private static final int DISPATCH_BATCH = 100;
+
+    private final OutboxRepository outboxRepository;
+    private final OutboxPublisher publisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Scheduled(initialDelayString = "${shareit.outbox.dispatch-interval}",
+            fixedDelayString = "${shareit.outbox.dispatch-interval}")
+    public void dispatch() {
+        int total = 0;
+        Integer published;
+        try {
+            do {
+                published = transactionTemplate.execute(status -> publishPending());
+                total += published == null ? 0 : published;
+            } while (published != null && published == DISPATCH_BATCH);
+        } catch (RuntimeException e) {
+            log.warn("Не удалось опубликовать события outbox, повтор при следующем запуске", e);
+        }
+        if (total > 0) {
+            log.debug("Опубликовано {} событий outbox", total);
+        }
+    }
+
+    private int publishPending() {
+        List<OutboxEvent> events = outboxRepository.findPendingForUpdate(Limit.of(DISPATCH_BATCH));
+        if (events.isEmpty()) return 0;
+        publisher.publish(events);
+        outboxRepository.deleteAllInBatch(events);
+        return events.size();
+    }
+}
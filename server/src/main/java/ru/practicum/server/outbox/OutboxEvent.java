@@ -0,0 +1,40 @@
+package ru.practicum.server.outbox;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "outbox_events")
+@Getter
+@Setter
+@NoArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_seq")
+    @SequenceGenerator(name = "outbox_seq", sequenceName = "outbox_seq", allocationSize = 50)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "type")
+    private String type;
+
+    @Column(name = "aggregate_id")
+    private long aggregateId;
+
+    @Column(name = "payload")
+    private String payload;
+
+    @Column(name = "created_at")
+    private LocalDateTime created = LocalDateTime.now();
+
+    public OutboxEvent(String type, long aggregateId, String payload) {
+        this.type = type;
+        this.aggregateId = aggregateId;
+        this.payload = payload;
+    }
+}
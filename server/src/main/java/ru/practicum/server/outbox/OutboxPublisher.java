@@ -0,0 +1,15 @@
+package ru.practicum.server.outbox;
+
+import java.util.List;
+
+/**
+ * Доставка событий потребителям: по умолчанию внутри процесса через события Spring,
+ * брокер сообщений подключается своей реализацией этого интерфейса.
+ * <p>
+ * Реализация должна выбросить исключение, если пачка не доставлена: тогда события останутся в outbox
+ * и будут отправлены повторно, поэтому потребители должны переносить повторную доставку.
+ */
+public interface OutboxPublisher {
+
+    void publish(List<OutboxEvent> events);
+}
@@ -0,0 +1,23 @@
+package ru.practicum.server.outbox;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
+
+public interface OutboxRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Неопубликованные события в порядке записи; строки, заблокированные другим диспетчером, пропускаются.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = "-2"))
+    @Query("select event from OutboxEvent event order by event.id")
+    List<OutboxEvent> findPendingForUpdate(Limit limit);
+}
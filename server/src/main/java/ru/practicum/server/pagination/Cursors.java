@@ -0,0 +1,78 @@
+package ru.practicum.server.pagination;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import ru.practicum.server.exceptions.ConditionsNotMetException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Кодирует позицию keyset-пагинации в непрозрачную для клиента строку и обратно.
+ * Поддерживаются ключи типов {@link Long}, {@link LocalDateTime} и {@link Instant}.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class Cursors {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public static KeysetScrollPosition decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return ScrollPosition.keyset();
+        try {
+            String raw = new String(DECODER.decode(cursor), StandardCharsets.UTF_8);
+            Map<String, Object> keys = new LinkedHashMap<>();
+            for (String pair : raw.split("&")) {
+                String[] keyAndValue = pair.split("=", 2);
+                keys.put(keyAndValue[0], parseValue(keyAndValue[1]));
+            }
+            return ScrollPosition.forward(keys);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new ConditionsNotMetException("Некорректный курсор страницы: " + cursor);
+        }
+    }
+
+    public static Limit limit(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE)
+            throw new ConditionsNotMetException("Размер страницы должен быть от 1 до " + MAX_PAGE_SIZE);
+        return Limit.of(size);
+    }
+
+    public static String next(Window<?> window) {
+        if (window.isEmpty() || !window.hasNext()) return null;
+        KeysetScrollPosition position = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+        StringJoiner joiner = new StringJoiner("&");
+        position.getKeys().forEach((key, value) -> joiner.add(key + "=" + formatValue(value)));
+        return ENCODER.encodeToString(joiner.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String formatValue(Object value) {
+        if (value instanceof Long) return "l:" + value;
+        if (value instanceof LocalDateTime) return "t:" + value;
+        if (value instanceof Instant) return "i:" + value;
+        throw new IllegalStateException("Неподдерживаемый тип ключа курсора: " + value.getClass());
+    }
+
+    private static Object parseValue(String value) {
+        String payload = value.substring(2);
+        return switch (value.substring(0, 2)) {
+            case "l:" -> Long.parseLong(payload);
+            case "t:" -> LocalDateTime.parse(payload);
+            case "i:" -> Instant.parse(payload);
+            default -> throw new IllegalArgumentException("Неизвестный тип ключа курсора: " + value);
+        };
+    }
+}
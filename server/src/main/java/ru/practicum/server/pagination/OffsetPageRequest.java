@@ -0,0 +1,36 @@
+package ru.practicum.server.pagination;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Страница, начинающаяся с произвольного смещения from, а не с границы страницы размера size.
+ */
+public class OffsetPageRequest extends PageRequest {
+
+    private final long offset;
+
+    private OffsetPageRequest(long offset, int size, Sort sort) {
+        super((int) (offset / size), size, sort);
+        this.offset = offset;
+    }
+
+    public static OffsetPageRequest ofOffset(long offset, int size) {
+        return new OffsetPageRequest(offset, size, Sort.unsorted());
+    }
+
+    @Override
+    public long getOffset() {
+        return offset;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof OffsetPageRequest other && offset == other.offset && super.equals(other);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + Long.hashCode(offset);
+    }
+}
@@ -2,10 +2,15 @@ package ru.practicum.server.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.catalina.connector.ClientAbortException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.AsyncRequestNotUsableException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.dto.request.ItemRequestDto;
 import ru.practicum.dto.request.NewRequestDto;
-import ru.practicum.dto.request.ShortItemRequest;
+import ru.practicum.server.pagination.Cursors;
 
 import java.util.List;
 
@@ -18,29 +23,61 @@ import java.util.List;
 @Slf4j
 public class ItemRequestController {
 
+    private static final String DEFAULT_PAGE_SIZE = "20";
+
     private final ItemRequestService itemRequestService;
+    private final ItemRequestFeed feed;
 
     @PostMapping
     public ItemRequestDto create(@RequestHeader("X-Sharer-User-Id") long userId, @RequestBody NewRequestDto request) {
-        log.info("Поступил POST запрос от пользователя с id = {} на создание запроса товара = {}", userId, request);
+        log.debug("Поступил POST запрос от пользователя с id = {} на создание запроса товара = {}", userId, request);
         return itemRequestService.create(userId, request);
     }
 
     @GetMapping
-    public List<ItemRequestDto> findUserItemRequests(@RequestHeader("X-Sharer-User-Id") long userId) {
-        log.info("Поступил GET запрос от пользователя с id = {} на получение списка своих запросов товаров", userId);
-        return itemRequestService.findUserRequests(userId);
+    public ResponseEntity<List<ItemRequestDto>> findUserItemRequests(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                                     @RequestParam(required = false) String from,
+                                                                     @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size) {
+        log.debug("Поступил GET запрос от пользователя с id = {} на получение списка своих запросов товаров", userId);
+        return toResponse(itemRequestService.findUserRequests(userId, from, size));
     }
 
     @GetMapping("/all")
-    public List<ShortItemRequest> findAllItemRequests(@RequestHeader("X-Sharer-User-Id") long userId) {
-        log.info("Поступил GET запрос от пользователя с id = {} на получение списка всех запросов товаров", userId);
-        return itemRequestService.findAllRequests(userId);
+    public ResponseEntity<List<ItemRequestDto>> findAllItemRequests(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                                    @RequestParam(required = false) String from,
+                                                                    @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size) {
+        log.debug("Поступил GET запрос от пользователя с id = {} на получение списка всех запросов товаров", userId);
+        return toResponse(itemRequestService.findAllRequests(userId, from, size));
+    }
+
+    /**
+     * Новые запросы других пользователей и ответы на запросы; после переподключения лента продолжается
+     * с события из заголовка Last-Event-ID.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader("X-Sharer-User-Id") long userId,
+                             @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        log.debug("Пользователь с id = {} подписался на ленту запросов товаров, последнее событие = {}",
+                userId, lastEventId);
+        return feed.subscribe(userId, lastEventId);
     }
 
     @GetMapping("/{requestId}")
     public ItemRequestDto findById(@PathVariable("requestId") long requestId) {
-        log.info("Поступил GET запрос на получение запроса товара с id = {}", requestId);
+        log.debug("Поступил GET запрос на получение запроса товара с id = {}", requestId);
         return itemRequestService.findById(requestId);
     }
+
+    /**
+     * Клиент ленты отключился: ответ уже начат, и отвечать ему нечем.
+     */
+    @ExceptionHandler({AsyncRequestNotUsableException.class, ClientAbortException.class})
+    public void streamClosed() {
+    }
+
+    private static ResponseEntity<List<ItemRequestDto>> toResponse(ItemRequestPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNext() != null) response.header(Cursors.NEXT_CURSOR_HEADER, page.getNext());
+        return response.body(page.getRequests());
+    }
 }
@@ -0,0 +1,213 @@
+package ru.practicum.server.request;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.dto.item.ItemDto;
+import ru.practicum.dto.request.ItemRequestDto;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Лента новых запросов вещей и ответов на них, отправляемая подписчикам как Server-Sent Events.
+ * Пользователь не получает собственные события, как и в GET /requests/all.
+ * <p>
+ * Последние события хранятся в кольцевом буфере: переподключившийся клиент передаёт Last-Event-ID
+ * и получает пропущенное. Если его событие уже вытеснено из буфера или выдано до перезапуска сервера,
+ * он получает событие {@code resync} и перечитывает ленту запросом GET /requests/all.
+ * <p>
+ * У каждого подписчика своя ограниченная очередь и свой поток отправки. Подписчик, не успевающий
+ * разбирать очередь, отключается, а не задерживает остальных, и догоняет ленту после переподключения.
+ * Буфер хранится в памяти, поэтому лента содержит события только этого экземпляра сервера.
+ */
+@Slf4j
+@Component
+public class ItemRequestFeed {
+
+    static final String REQUEST_CREATED = "request";
+    static final String ITEM_ANSWERED = "answer";
+    static final String RESYNC = "resync";
+
+    private static final Event HEARTBEAT = new Event(0, null, 0, null);
+
+    private final int bufferSize;
+    private final int subscriberQueueSize;
+    private final Duration timeout;
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final Deque<Event> buffer = new ArrayDeque<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private long lastSequence;
+
+    public ItemRequestFeed(@Value("${shareit.request-feed.buffer-size}") int bufferSize,
+                           @Value("${shareit.request-feed.subscriber-queue-size}") int subscriberQueueSize,
+                           @Value("${shareit.request-feed.timeout}") Duration timeout) {
+        this.bufferSize = bufferSize;
+        this.subscriberQueueSize = subscriberQueueSize;
+        this.timeout = timeout;
+    }
+
+    public void requestCreated(long requesterId, ItemRequestDto request) {
+        publishAfterCommit(REQUEST_CREATED, requesterId, request);
+    }
+
+    public void itemAnswered(long ownerId, ItemDto item) {
+        publishAfterCommit(ITEM_ANSWERED, ownerId, item);
+    }
+
+    public SseEmitter subscribe(long userId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        subscriber.start();
+        synchronized (buffer) {
+            List<Event> missed = missedSince(lastEventId);
+            if (missed == null || missed.size() > subscriberQueueSize) {
+                subscriber.offer(new Event(lastSequence, RESYNC, 0, Map.of()));
+            } else {
+                missed.stream().filter(subscriber::accepts).forEach(subscriber::offer);
+            }
+            subscribers.add(subscriber);
+        }
+        return emitter;
+    }
+
+    /**
+     * Пустой комментарий не даёт прокси и gateway закрыть соединение по таймауту чтения
+     * и выявляет отключившихся клиентов.
+     */
+    @Scheduled(initialDelayString = "${shareit.request-feed.heartbeat-interval}",
+            fixedDelayString = "${shareit.request-feed.heartbeat-interval}")
+    public void heartbeat() {
+        subscribers.forEach(subscriber -> subscriber.offer(HEARTBEAT));
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Событие транзакции уходит подписчикам только после её фиксации.
+     */
+    private void publishAfterCommit(String name, long authorId, Object data) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(name, authorId, data);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(name, authorId, data);
+            }
+        });
+    }
+
+    private void publish(String name, long authorId, Object data) {
+        synchronized (buffer) {
+            Event event = new Event(++lastSequence, name, authorId, data);
+            buffer.addLast(event);
+            if (buffer.size() > bufferSize) buffer.removeFirst();
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.accepts(event)) subscriber.offer(event);
+            }
+        }
+    }
+
+    /**
+     * События после lastEventId; null, если часть из них уже недоступна.
+     */
+    private List<Event> missedSince(String lastEventId) {
+        if (lastEventId == null) return List.of();
+        long sequence = parseSequence(lastEventId);
+        if (sequence < 0 || sequence > lastSequence) return null;
+        long oldest = buffer.isEmpty() ? lastSequence + 1 : buffer.getFirst().sequence();
+        if (sequence + 1 < oldest) return null;
+        return buffer.stream().filter(event -> event.sequence() > sequence).toList();
+    }
+
+    private long parseSequence(String eventId) {
+        int separator = eventId.indexOf(':');
+        if (separator < 0 || !eventId.substring(0, separator).equals(epoch)) return -1;
+        try {
+            return Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private record Event(long sequence, String name, long authorId, Object data) {
+    }
+
+    private final class Subscriber {
+
+        private final long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Event> queue = new ArrayBlockingQueue<>(subscriberQueueSize);
+        private final Thread sender;
+        private volatile boolean completed;
+
+        Subscriber(long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.sender = Thread.ofVirtual().name("request-feed-" + userId).unstarted(this::send);
+        }
+
+        boolean accepts(Event event) {
+            return event.authorId() != userId;
+        }
+
+        void start() {
+            emitter.onCompletion(this::completed);
+            emitter.onTimeout(this::completed);
+            emitter.onError(e -> completed());
+            sender.start();
+        }
+
+        void offer(Event event) {
+            if (!queue.offer(event)) {
+                log.warn("Пользователь с id = {} не успевает получать ленту запросов товаров и отключён", userId);
+                stop();
+            }
+        }
+
+        private void completed() {
+            completed = true;
+            stop();
+        }
+
+        private void stop() {
+            subscribers.remove(this);
+            sender.interrupt();
+        }
+
+        private void send() {
+            try {
+                while (true) {
+                    Event event = queue.take();
+                    emitter.send(event == HEARTBEAT ? SseEmitter.event().comment("") : SseEmitter.event()
+                            .id(epoch + ":" + event.sequence())
+                            .name(event.name())
+                            .data(event.data(), MediaType.APPLICATION_JSON));
+                }
+            } catch (InterruptedException e) {
+                if (!completed) emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Пользователь с id = {} отключился от ленты запросов товаров", userId);
+            } finally {
+                subscribers.remove(this);
+            }
+        }
+    }
+}
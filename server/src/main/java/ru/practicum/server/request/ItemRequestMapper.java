@@ -25,13 +25,15 @@ public class ItemRequestMapper {
                 .stream()
                 .map(ItemMapper::mapToItemDto)
                 .toList();
+        return mapToItemRequestDto(request, itemDtos);
+    }
 
-
+    public static ItemRequestDto mapToItemRequestDto(ItemRequest request, List<ItemDto> items) {
         return ItemRequestDto.builder()
                 .id(request.getId())
                 .description(request.getDescription())
                 .created(request.getCreated())
-                .items(itemDtos)
+                .items(items)
                 .build();
     }
 
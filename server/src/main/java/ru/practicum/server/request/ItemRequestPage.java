@@ -0,0 +1,16 @@
+package ru.practicum.server.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.dto.request.ItemRequestDto;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class ItemRequestPage {
+
+    private final List<ItemRequestDto> requests;
+
+    private final String next;
+}
@@ -1,14 +1,15 @@
 package ru.practicum.server.request;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
-import ru.practicum.dto.request.ShortItemRequest;
-
-import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
-    List<ItemRequest> findAllByUserIdOrderByCreatedDesc(long userId);
+    Window<ItemRequest> findAllByUserId(long userId, ScrollPosition position, Limit limit, Sort sort);
 
-    List<ShortItemRequest> findAllByUserIdNotOrderByCreatedDesc(long userId);
+    Window<ItemRequest> findAllByUserIdNot(long userId, ScrollPosition position, Limit limit, Sort sort);
 
 }
@@ -2,17 +2,14 @@ package ru.practicum.server.request;
 
 import ru.practicum.dto.request.ItemRequestDto;
 import ru.practicum.dto.request.NewRequestDto;
-import ru.practicum.dto.request.ShortItemRequest;
-
-import java.util.List;
 
 public interface ItemRequestService {
 
     ItemRequestDto create(long userId, NewRequestDto dto);
 
-    List<ItemRequestDto> findUserRequests(long userId);
+    ItemRequestPage findUserRequests(long userId, String from, int size);
 
-    List<ShortItemRequest> findAllRequests(long userId);
+    ItemRequestPage findAllRequests(long userId, String from, int size);
 
     ItemRequestDto findById(long requestId);
 
@@ -1,23 +1,36 @@
 package ru.practicum.server.request;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.dto.item.ItemDto;
 import ru.practicum.server.exceptions.NotFoundException;
 import ru.practicum.dto.request.ItemRequestDto;
 import ru.practicum.dto.request.NewRequestDto;
-import ru.practicum.dto.request.ShortItemRequest;
+import ru.practicum.server.item.ItemMapper;
+import ru.practicum.server.item.ItemRepository;
+import ru.practicum.server.pagination.Cursors;
 import ru.practicum.server.user.User;
 import ru.practicum.server.user.UserRepository;
 
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "shareit.service", histogram = true)
 @RequiredArgsConstructor
 public class ItemRequestServiceImpl implements ItemRequestService {
 
+    private static final Sort FEED_SORT = Sort.by("created").descending().and(Sort.by("id").descending());
+
     private final UserRepository userRepository;
     private final ItemRequestRepository requestRepository;
+    private final ItemRepository itemRepository;
+    private final ItemRequestFeed feed;
 
     @Transactional
     @Override
@@ -25,20 +38,24 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь с id " + userId + " не найден"));
         ItemRequest request = requestRepository.save(ItemRequestMapper.mapToItemRequest(user, dto));
-        return ItemRequestMapper.mapToItemRequestDto(request);
+        ItemRequestDto created = ItemRequestMapper.mapToItemRequestDto(request);
+        feed.requestCreated(userId, created);
+        return created;
     }
 
+    @Transactional(readOnly = true)
     @Override
-    public List<ItemRequestDto> findUserRequests(long userId) {
-        List<ItemRequest> requests = requestRepository.findAllByUserIdOrderByCreatedDesc(userId);
-        return ItemRequestMapper.mapToItemRequestDto(requests);
+    public ItemRequestPage findUserRequests(long userId, String from, int size) {
+        return toPage(requestRepository.findAllByUserId(userId, Cursors.decode(from), Cursors.limit(size), FEED_SORT));
     }
 
+    @Transactional(readOnly = true)
     @Override
-    public List<ShortItemRequest> findAllRequests(long userId) {
-        return requestRepository.findAllByUserIdNotOrderByCreatedDesc(userId);
+    public ItemRequestPage findAllRequests(long userId, String from, int size) {
+        return toPage(requestRepository.findAllByUserIdNot(userId, Cursors.decode(from), Cursors.limit(size), FEED_SORT));
     }
 
+    @Transactional
     @Override
     public ItemRequestDto findById(long requestId) {
         ItemRequest request = requestRepository.findById(requestId)
@@ -46,4 +63,19 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return ItemRequestMapper.mapToItemRequestDto(request);
     }
 
+    /**
+     * Вещи, предложенные в ответ на запросы страницы, загружаются одним запросом.
+     */
+    private ItemRequestPage toPage(Window<ItemRequest> requests) {
+        List<Long> requestIds = requests.stream().map(ItemRequest::getId).toList();
+        Map<Long, List<ItemDto>> items = requestIds.isEmpty() ? Map.of() : itemRepository.findAllByRequestIdIn(requestIds)
+                .stream()
+                .collect(Collectors.groupingBy(item -> item.getRequest().getId(),
+                        Collectors.mapping(ItemMapper::mapToItemDto, Collectors.toList())));
+        List<ItemRequestDto> dtos = requests.stream()
+                .map(request -> ItemRequestMapper.mapToItemRequestDto(request,
+                        items.getOrDefault(request.getId(), List.of())))
+                .toList();
+        return new ItemRequestPage(dtos, Cursors.next(requests));
+    }
 }
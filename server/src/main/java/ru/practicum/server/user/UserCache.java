@@ -0,0 +1,25 @@
+package ru.practicum.server.user;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+import ru.practicum.dto.user.UserDto;
+
+import java.util.Optional;
+
+/**
+ * Кэшированный поиск пользователя для проверок существования в других сервисах.
+ * Отсутствующие пользователи не кэшируются; записи сбрасываются в {@link UserServiceImpl} при изменении и удалении.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserCache {
+    public static final String USERS = "users";
+
+    private final UserRepository repository;
+
+    @Cacheable(cacheNames = USERS, key = "#userId", unless = "#result == null")
+    public Optional<UserDto> find(long userId) {
+        return repository.findById(userId).map(UserMapper::mapToUserDto);
+    }
+}
@@ -20,31 +20,31 @@ public class UserController {
 
     @GetMapping
     public List<UserDto> findAll() {
-        log.info("Поступил GET запрос на всех пользователей");
+        log.debug("Поступил GET запрос на всех пользователей");
         return service.findAll();
     }
 
     @GetMapping("/{userId}")
     public UserDto findById(@PathVariable long userId) {
-        log.info("Поступил GET запрос на пользователя с id = {}", userId);
+        log.debug("Поступил GET запрос на пользователя с id = {}", userId);
         return service.findById(userId);
     }
 
     @PostMapping
     public UserDto create(@RequestBody UserDto userDto) {
-        log.info("Поступил POST запрос на добавление пользователя = {}", userDto);
+        log.debug("Поступил POST запрос на добавление пользователя = {}", userDto);
         return service.create(userDto);
     }
 
     @PatchMapping("/{userId}")
     public UserDto update(@PathVariable long userId, @RequestBody UserDto userDto) {
-        log.info("Поступил PATCH запрос на изменение пользователя с id ={}, данные = {}", userId, userDto);
+        log.debug("Поступил PATCH запрос на изменение пользователя с id ={}, данные = {}", userId, userDto);
         return service.update(userId, userDto);
     }
 
     @DeleteMapping("/{userId}")
     public void delete(@PathVariable long userId) {
-        log.info("Поступил DELETE запрос на удаление пользователя с id = {}", userId);
+        log.debug("Поступил DELETE запрос на удаление пользователя с id = {}", userId);
         service.delete(userId);
     }
 }
@@ -1,19 +1,31 @@
 package ru.practicum.server.user;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 import ru.practicum.server.exceptions.ConditionsNotMetException;
 import ru.practicum.server.exceptions.NotFoundException;
+import ru.practicum.server.item.ItemRepository;
+import ru.practicum.server.item.search.ItemSearcher;
 import ru.practicum.dto.user.UserDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
+@Timed(value = "shareit.service", histogram = true)
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
     private final UserRepository repository;
+    private final ItemRepository itemRepository;
+    private final ItemSearcher searcher;
 
+    @Transactional(readOnly = true)
     @Override
     public List<UserDto> findAll() {
         return repository.findAll().stream()
@@ -21,12 +33,15 @@ public class UserServiceImpl implements UserService {
                 .toList();
     }
 
+    @Cacheable(cacheNames = UserCache.USERS, key = "#userId")
+    @Transactional
     @Override
     public UserDto findById(long userId) {
         User user = getUser(userId);
         return UserMapper.mapToUserDto(user);
     }
 
+    @Transactional
     @Override
     public UserDto create(UserDto dto) {
         if (!StringUtils.hasText(dto.getEmail())) throw new ConditionsNotMetException("Email должен быть указан");
@@ -35,6 +50,8 @@ public class UserServiceImpl implements UserService {
         return UserMapper.mapToUserDto(created);
     }
 
+    @CachePut(cacheNames = UserCache.USERS, key = "#userId")
+    @Transactional
     @Override
     public UserDto update(long userId, UserDto userDto) {
         User oldUser = getUser(userId);
@@ -43,9 +60,13 @@ public class UserServiceImpl implements UserService {
         return UserMapper.mapToUserDto(dbUser);
     }
 
+    @CacheEvict(cacheNames = UserCache.USERS, key = "#userId")
+    @Transactional
     @Override
     public void delete(long userId) {
         User user = getUser(userId);
+        itemRepository.markBookingSummariesStale(userId, LocalDateTime.now());
+        searcher.removeOwnedBy(userId);
         repository.delete(user);
     }
 
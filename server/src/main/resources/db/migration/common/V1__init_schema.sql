@@ -50,3 +50,5 @@ CREATE TABLE IF NOT EXISTS comments (
 
     CONSTRAINT fk_comment_item FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE
 );
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_period ON bookings (item_id, start_time, end_time);
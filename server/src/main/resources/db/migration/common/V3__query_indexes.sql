@@ -0,0 +1,9 @@
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_time);
+
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id);
+
+CREATE INDEX IF NOT EXISTS idx_requests_user_created ON requests (user_id, created_at);
+
+CREATE INDEX IF NOT EXISTS idx_requests_created ON requests (created_at);
+
+CREATE INDEX IF NOT EXISTS idx_comments_item ON comments (item_id);
@@ -0,0 +1,18 @@
+ALTER TABLE items ADD COLUMN IF NOT EXISTS last_booking_id BIGINT;
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS next_booking_id BIGINT;
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS booking_summary_valid_until TIMESTAMP WITHOUT TIME ZONE;
+
+ALTER TABLE items ADD CONSTRAINT fk_item_last_booking
+    FOREIGN KEY (last_booking_id) REFERENCES bookings(id) ON DELETE SET NULL;
+
+ALTER TABLE items ADD CONSTRAINT fk_item_next_booking
+    FOREIGN KEY (next_booking_id) REFERENCES bookings(id) ON DELETE SET NULL;
+
+-- сводка существующих вещей с бронированиями считается устаревшей и пересчитывается планировщиком или при чтении
+UPDATE items
+SET booking_summary_valid_until = TIMESTAMP '1970-01-01 00:00:00'
+WHERE EXISTS (SELECT 1 FROM bookings WHERE bookings.item_id = items.id);
+
+CREATE INDEX IF NOT EXISTS idx_items_booking_summary_valid_until ON items (booking_summary_valid_until);
@@ -0,0 +1,10 @@
+-- события, записанные в одной транзакции с изменением бронирований; диспетчер публикует их и удаляет
+CREATE SEQUENCE IF NOT EXISTS outbox_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGINT PRIMARY KEY,
+    type VARCHAR(64) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    payload VARCHAR NOT NULL,
+    created_at TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
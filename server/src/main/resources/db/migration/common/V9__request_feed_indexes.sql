@@ -0,0 +1,11 @@
+-- ленты запросов листаются по (created_at, id) в обратном порядке; прежние индексы по created_at покрываются новыми
+CREATE INDEX IF NOT EXISTS idx_requests_user_created_id ON requests (user_id, created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_requests_created_id ON requests (created_at DESC, id DESC);
+
+DROP INDEX IF EXISTS idx_requests_user_created;
+
+DROP INDEX IF EXISTS idx_requests_created;
+
+-- вещи, предложенные в ответ на запросы страницы, выбираются одним запросом по request_id
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id);
@@ -0,0 +1,6 @@
+-- встроенная база создаётся пустой, поэтому последовательность начинается с первого диапазона
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 50 INCREMENT BY 50;
+
+ALTER TABLE bookings ALTER COLUMN id DROP IDENTITY;
+
+ALTER TABLE bookings ALTER COLUMN id SET DEFAULT NEXT VALUE FOR bookings_seq;
@@ -0,0 +1,2 @@
+-- поиск свободных на период вещей проверяет только подтверждённые бронирования каждой найденной вещи
+CREATE INDEX IF NOT EXISTS idx_bookings_item_approved_period ON bookings (item_id, start_time, end_time) WHERE status = 'APPROVED';
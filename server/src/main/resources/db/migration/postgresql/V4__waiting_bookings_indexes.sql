@@ -0,0 +1,3 @@
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_waiting ON bookings (booker_id, start_time) WHERE status = 'WAITING';
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_waiting ON bookings (item_id, start_time) WHERE status = 'WAITING';
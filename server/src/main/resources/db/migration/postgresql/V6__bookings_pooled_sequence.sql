@@ -0,0 +1,11 @@
+-- идентификаторы бронирований выдаются последовательностью с шагом 50 (pooled), чтобы Hibernate мог пакетно вставлять строки;
+-- значение по умолчанию столбца берёт ту же последовательность, поэтому прямые INSERT не пересекаются с выданными диапазонами
+CREATE SEQUENCE IF NOT EXISTS bookings_seq INCREMENT BY 50;
+
+SELECT setval('bookings_seq', COALESCE((SELECT MAX(id) FROM bookings), 0) + 50, false);
+
+ALTER TABLE bookings ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+ALTER TABLE bookings ALTER COLUMN id SET DEFAULT nextval('bookings_seq');
+
+ALTER SEQUENCE bookings_seq OWNED BY bookings.id;
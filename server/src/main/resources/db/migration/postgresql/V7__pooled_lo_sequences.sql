@@ -0,0 +1,43 @@
+-- остальные таблицы тоже переходят с IDENTITY на последовательности с шагом 50: Hibernate выдаёт идентификаторы
+-- из диапазона [nextval, nextval + 49] (оптимизатор pooled-lo) и может пакетно вставлять строки;
+-- прямые INSERT берут nextval из той же последовательности и занимают свой диапазон целиком
+
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+
+SELECT setval('users_seq', COALESCE((SELECT MAX(id) FROM users), 0) + 1, false);
+
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+
+ALTER SEQUENCE users_seq OWNED BY users.id;
+
+CREATE SEQUENCE IF NOT EXISTS requests_seq INCREMENT BY 50;
+
+SELECT setval('requests_seq', COALESCE((SELECT MAX(id) FROM requests), 0) + 1, false);
+
+ALTER TABLE requests ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+ALTER TABLE requests ALTER COLUMN id SET DEFAULT nextval('requests_seq');
+
+ALTER SEQUENCE requests_seq OWNED BY requests.id;
+
+CREATE SEQUENCE IF NOT EXISTS items_seq INCREMENT BY 50;
+
+SELECT setval('items_seq', COALESCE((SELECT MAX(id) FROM items), 0) + 1, false);
+
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+ALTER TABLE items ALTER COLUMN id SET DEFAULT nextval('items_seq');
+
+ALTER SEQUENCE items_seq OWNED BY items.id;
+
+CREATE SEQUENCE IF NOT EXISTS comments_seq INCREMENT BY 50;
+
+SELECT setval('comments_seq', COALESCE((SELECT MAX(id) FROM comments), 0) + 1, false);
+
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+ALTER TABLE comments ALTER COLUMN id SET DEFAULT nextval('comments_seq');
+
+ALTER SEQUENCE comments_seq OWNED BY comments.id;
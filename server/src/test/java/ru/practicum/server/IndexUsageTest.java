@@ -0,0 +1,199 @@
+package ru.practicum.server;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.server.booking.BookingRepository;
+import ru.practicum.server.booking.BookingStatus;
+import ru.practicum.server.item.CommentRepository;
+import ru.practicum.server.item.ItemRepository;
+import ru.practicum.server.item.model.Item;
+import ru.practicum.server.request.ItemRequestRepository;
+import ru.practicum.server.user.User;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntFunction;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.anEmptyMap;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.containsString;
+
+/**
+ * Выполняет запросы репозиториев на заполненной базе, перехватывает сгенерированный SQL
+ * и проверяет через EXPLAIN, что ни одна таблица не читается полным сканированием.
+ * Поиск по подстроке (ItemRepository.search) и полная выгрузка вещей (findAllBy) сюда не входят:
+ * первый в PostgreSQL обслуживают триграммные индексы, вторая читает всю таблицу намеренно.
+ * У поиска свободных на период вещей проверяется только проверка бронирований.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.server.IndexUsageTest$CapturingStatementInspector")
+@Transactional
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class IndexUsageTest {
+
+    private static final List<String> CAPTURED = new CopyOnWriteArrayList<>();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final CommentRepository commentRepository;
+    private final ItemRequestRepository requestRepository;
+
+    private long userId;
+    private long itemId;
+
+    @BeforeEach
+    void seed() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> users = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            jdbcTemplate.update("INSERT INTO users (name, email) VALUES (?, ?)", "user" + i, "plan" + i + "@mail.ru");
+            users.add(jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = ?", Long.class,
+                    "plan" + i + "@mail.ru"));
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO requests (user_id, description, created_at) VALUES (?, ?, ?)",
+                rows(100, i -> new Object[]{users.get(i % users.size()), "request" + i,
+                        Timestamp.valueOf(now.minusHours(i))}));
+        jdbcTemplate.batchUpdate("INSERT INTO items (name, description, available, owner_id) VALUES (?, ?, ?, ?)",
+                rows(200, i -> new Object[]{"item" + i, "description" + i, i % 3 != 0, users.get(i % users.size())}));
+        List<Long> items = jdbcTemplate.queryForList("SELECT id FROM items", Long.class);
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (start_time, end_time, status, booker_id, item_id) "
+                        + "VALUES (?, ?, ?, ?, ?)",
+                rows(2000, i -> new Object[]{Timestamp.valueOf(now.plusHours(i - 1000)),
+                        Timestamp.valueOf(now.plusHours(i - 999)),
+                        BookingStatus.values()[i % BookingStatus.values().length].name(),
+                        users.get(i % users.size()), items.get(i % items.size())}));
+        jdbcTemplate.batchUpdate("INSERT INTO comments (text, author_name, item_id, created_at) VALUES (?, ?, ?, ?)",
+                rows(400, i -> new Object[]{"comment" + i, "user" + i, items.get(i % items.size()),
+                        Timestamp.valueOf(now)}));
+        userId = users.get(0);
+        itemId = items.get(0);
+    }
+
+    @Test
+    void repositoryQueries_shouldNotScanTables() {
+        LocalDateTime now = LocalDateTime.now();
+        Sort sort = Sort.by("start").descending();
+        Sort keyset = Sort.by("start").ascending().and(Sort.by("id").ascending());
+        ScrollPosition position = ScrollPosition.keyset();
+        Limit limit = Limit.of(10);
+        Item item = itemRepository.getReferenceById(itemId);
+        User user = new User();
+        user.setId(userId);
+
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("findAllByBookerId", () -> bookingRepository.findAllByBookerId(userId, sort));
+        queries.put("findCurrentByBookerId", () -> bookingRepository.findCurrentByBookerId(userId));
+        queries.put("findAllByBooker_IdAndEndIsBefore",
+                () -> bookingRepository.findAllByBooker_IdAndEndIsBefore(userId, now, sort));
+        queries.put("findAllByBooker_IdAndStartIsAfter",
+                () -> bookingRepository.findAllByBooker_IdAndStartIsAfter(userId, now, sort));
+        queries.put("findAllByBooker_IdAndStatus",
+                () -> bookingRepository.findAllByBooker_IdAndStatus(userId, BookingStatus.WAITING, sort));
+        queries.put("findAllByItem_Owner_Id", () -> bookingRepository.findAllByItem_Owner_Id(userId, sort));
+        queries.put("findCurrentByOwnerId", () -> bookingRepository.findCurrentByOwnerId(userId));
+        queries.put("findAllByItem_Owner_IdAndStatus",
+                () -> bookingRepository.findAllByItem_Owner_IdAndStatus(userId, BookingStatus.WAITING, sort));
+        queries.put("findAllByBookerId(window)",
+                () -> bookingRepository.findAllByBookerId(userId, position, limit, keyset));
+        queries.put("findAllByItem_Owner_IdAndStartIsAfter(window)",
+                () -> bookingRepository.findAllByItem_Owner_IdAndStartIsAfter(userId, now, position, limit, keyset));
+        queries.put("findBookingsByItemAndBooker",
+                () -> bookingRepository.findBookingsByItemAndBooker(item, user, now));
+        queries.put("existsOverlapping",
+                () -> bookingRepository.existsOverlapping(itemId, now, now.plusDays(1)));
+        queries.put("findOccupiedIntervals",
+                () -> bookingRepository.findOccupiedIntervals(itemId, now, now.plusDays(30)));
+        queries.put("findOccupiedIntervalsAfter", () -> bookingRepository.findOccupiedIntervalsAfter(itemId, now));
+        queries.put("findLastBookings", () -> bookingRepository.findLastBookings(List.of(itemId), now));
+        queries.put("findNextBookings", () -> bookingRepository.findNextBookings(List.of(itemId), now));
+        queries.put("findAllByOwnerId", () -> itemRepository.findAllByOwnerId(userId));
+        queries.put("findByIdWithRelations", () -> itemRepository.findByIdWithRelations(itemId));
+        queries.put("findAllByItemIn", () -> commentRepository.findAllByItemIn(List.of(item)));
+        Sort feed = Sort.by("created").descending().and(Sort.by("id").descending());
+        queries.put("findAllByUserId(window)",
+                () -> requestRepository.findAllByUserId(userId, position, limit, feed));
+        queries.put("findAllByUserIdNot(window)",
+                () -> requestRepository.findAllByUserIdNot(userId, position, limit, feed));
+        queries.put("findAllByRequestIdIn", () -> itemRepository.findAllByRequestIdIn(List.of(1L, 2L)));
+
+        Map<String, String> scans = new LinkedHashMap<>();
+        queries.forEach((name, query) -> {
+            CAPTURED.clear();
+            query.run();
+            assertThat(name, CAPTURED, not(empty()));
+            for (String sql : CAPTURED) {
+                String plan = explain(sql);
+                if (plan.contains(".tableScan")) {
+                    scans.put(name, plan);
+                }
+            }
+        });
+
+        assertThat("Запросы с полным сканированием таблиц: " + scans, scans, anEmptyMap());
+    }
+
+    @Test
+    void searchAvailable_shouldCheckBookingsByIndex() {
+        LocalDateTime now = LocalDateTime.now();
+        CAPTURED.clear();
+
+        itemRepository.searchAvailable("item", now, now.plusDays(1), PageRequest.of(0, 20));
+
+        assertThat(CAPTURED, not(empty()));
+        for (String sql : CAPTURED) {
+            assertThat(explain(sql), not(containsString("BOOKINGS.tableScan")));
+        }
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setObject(i, null);
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getString(1);
+                }
+            }
+        });
+    }
+
+    private static List<Object[]> rows(int count, IntFunction<Object[]> row) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(row.apply(i));
+        }
+        return rows;
+    }
+
+    public static class CapturingStatementInspector implements StatementInspector {
+        @Override
+        public String inspect(String sql) {
+            CAPTURED.add(sql);
+            return sql;
+        }
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.dto.booking.BookingBatchResultDto;
 import ru.practicum.dto.booking.BookingDto;
 import ru.practicum.dto.booking.ResponseBookingDto;
 import ru.practicum.dto.item.ItemDto;
@@ -20,6 +21,7 @@ import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -57,6 +59,29 @@ class BookingControllerTest {
             .item(buildItemDto())
             .build();
 
+    @Test
+    void createBatch_shouldReturnPerEntryResults() throws Exception {
+        List<BookingDto> dtos = List.of(
+                new BookingDto(null, LocalDateTime.now().plusHours(1), LocalDateTime.now().plusHours(2), 3L),
+                new BookingDto(null, LocalDateTime.now().plusHours(1), LocalDateTime.now().plusHours(2), 4L));
+
+        when(service.createBatch(eq(2L), anyList()))
+                .thenReturn(List.of(BookingBatchResultDto.success(0, responseDto),
+                        BookingBatchResultDto.failure(1, "Товар с id = 4 не найден")));
+
+        mvc.perform(post("/bookings/batch")
+                        .header("X-Sharer-User-Id", 2L)
+                        .content(mapper.writeValueAsString(dtos))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].index", is(0)))
+                .andExpect(jsonPath("$[0].booking.id", is(responseDto.getId()), Long.class))
+                .andExpect(jsonPath("$[1].index", is(1)))
+                .andExpect(jsonPath("$[1].error", is("Товар с id = 4 не найден")));
+    }
+
     @Test
     void create_shouldReturnBooking() throws Exception {
         BookingDto dto = new BookingDto(
@@ -145,4 +170,20 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[0].booker.id", is(responseDto.getBooker().getId()), Long.class))
                 .andExpect(jsonPath("$[0].item.name", is(responseDto.getItem().getName())));
     }
-}
\ No newline at end of file
+
+    @Test
+    void findForOwnerByState_withSize_shouldReturnPageAndNextCursor() throws Exception {
+        when(service.findForOwnerByState(anyLong(), any(BookingState.class), isNull(), eq(1)))
+                .thenReturn(new BookingPage(List.of(responseDto), "next-cursor"));
+
+        mvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("state", "ALL")
+                        .param("size", "1")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "next-cursor"))
+                .andExpect(jsonPath("$[0].id", is(responseDto.getId()), Long.class));
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.server.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.dto.booking.BookingDto;
+import ru.practicum.dto.item.ItemDto;
+import ru.practicum.dto.user.UserDto;
+import ru.practicum.server.exceptions.ConditionsNotMetException;
+import ru.practicum.server.item.ItemService;
+import ru.practicum.server.user.UserService;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Транзакции фиксируются по-настоящему, чтобы вторая транзакция видела блокировку и данные первой.
+ */
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingLockIntegrationTest {
+
+    private final BookingService bookingService;
+    private final UserService userService;
+    private final ItemService itemService;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void deleteLockUsers() {
+        jdbcTemplate.update("DELETE FROM outbox_events WHERE aggregate_id IN (SELECT booking.id FROM bookings booking " +
+                "JOIN users booker ON booker.id = booking.booker_id WHERE booker.email LIKE 'lock%')");
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE 'lock%'");
+    }
+
+    /**
+     * Первая транзакция держит блокировку вещи до фиксации; вторая ждёт её и после фиксации
+     * видит пересекающееся бронирование.
+     */
+    @Test
+    void create_shouldWaitForItemLockAndRejectOverlap() throws Exception {
+        UserDto owner = userService.create(new UserDto(null, "owner", "lock-owner@mail.ru"));
+        UserDto booker = userService.create(new UserDto(null, "booker", "lock-booker@mail.ru"));
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Дрель");
+        itemDto.setDescription("Ударная");
+        itemDto.setAvailable(true);
+        ItemDto item = itemService.create(owner.getId(), itemDto);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        CountDownLatch firstCreated = new CountDownLatch(1);
+        CountDownLatch commitFirst = new CountDownLatch(1);
+
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            bookingService.create(booker.getId(), new BookingDto(null, start, start.plusHours(2), item.getId()));
+            firstCreated.countDown();
+            try {
+                commitFirst.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertThat(firstCreated.await(5, TimeUnit.SECONDS), is(true));
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() -> bookingService.create(booker.getId(),
+                new BookingDto(null, start.plusHours(1), start.plusHours(3), item.getId())));
+
+        Thread.sleep(200);
+        assertThat(second.isDone(), is(false));
+        commitFirst.countDown();
+        first.get(5, TimeUnit.SECONDS);
+
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+        assertThat(ex.getCause(), instanceOf(ConditionsNotMetException.class));
+        assertThat(bookingService.findByState(booker.getId(), BookingState.ALL), hasSize(1));
+    }
+}
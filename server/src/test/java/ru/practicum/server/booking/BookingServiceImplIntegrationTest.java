@@ -1,21 +1,35 @@
 package ru.practicum.server.booking;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.dto.booking.BookingBatchResultDto;
+import ru.practicum.dto.booking.BookingDecisionDto;
 import ru.practicum.dto.booking.BookingDto;
 import ru.practicum.dto.booking.ResponseBookingDto;
 import ru.practicum.dto.item.ItemDto;
 import ru.practicum.dto.user.UserDto;
+import ru.practicum.server.exceptions.ConditionsNotMetException;
 import ru.practicum.server.item.ItemService;
+import ru.practicum.server.item.model.Comment;
+import ru.practicum.server.item.model.Item;
+import ru.practicum.server.user.User;
 import ru.practicum.server.user.UserService;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
-import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @SpringBootTest
 @Transactional
@@ -26,6 +40,7 @@ class BookingServiceImplIntegrationTest {
     private final UserService userService;
     private final ItemService itemService;
     private final BookingRepository bookingRepository;
+    private final EntityManager em;
 
     @Test
     void approve_shouldSetStatusApprovedAndPersist() {
@@ -63,5 +78,317 @@ class BookingServiceImplIntegrationTest {
         assertThat(dbBooking.getItem().getId(), equalTo(item.getId()));
         assertThat(dbBooking.getBooker().getId(), equalTo(booker.getId()));
     }
-}
 
+    @Test
+    void createBatch_shouldInsertValidEntriesAndReportRejectedOnes() {
+        UserDto owner = createUser("batchOwner", "batch-owner@mail.ru");
+        UserDto booker = createUser("batchBooker", "batch-booker@mail.ru");
+        ItemDto drill = createItem(owner.getId(), "Дрель");
+        ItemDto saw = createItem(owner.getId(), "Пила");
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        bookingService.create(booker.getId(), new BookingDto(null, start, start.plusHours(2), saw.getId()));
+
+        List<BookingDto> batch = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            batch.add(new BookingDto(null, start.plusHours(3L * i), start.plusHours(3L * i + 1), drill.getId()));
+        }
+        batch.add(new BookingDto(null, start.plusMinutes(30), start.plusHours(1), drill.getId()));
+        batch.add(new BookingDto(null, start.plusHours(1), start.plusHours(3), saw.getId()));
+        batch.add(new BookingDto(null, start, start.plusHours(1), -1L));
+
+        List<BookingBatchResultDto> results = bookingService.createBatch(booker.getId(), batch);
+
+        assertThat(results, hasSize(123));
+        assertThat(results.subList(0, 120).stream().map(BookingBatchResultDto::getError).toList(),
+                everyItem(nullValue()));
+        assertThat(results.get(120).getError(), containsString("уже забронирован"));
+        assertThat(results.get(121).getError(), containsString("уже забронирован"));
+        assertThat(results.get(122).getError(), containsString("не найден"));
+        assertThat(results.get(0).getBooking().getStatus(), equalTo(BookingStatus.WAITING.toString()));
+
+        // идентификаторы уже выданы последовательностями, 120 бронирований и 120 событий outbox
+        // уходят при сбросе пакетами по 50
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            em.flush();
+            assertThat(statistics.getEntityStatistics(Booking.class.getName()).getInsertCount(), equalTo(120L));
+            assertThat(statistics.getEntityInsertCount(), equalTo(240L));
+            assertThat(statistics.getPrepareStatementCount(), lessThanOrEqualTo(8L));
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+        em.clear();
+        assertThat(bookingService.findByState(booker.getId(), BookingState.ALL), hasSize(121));
+    }
+
+    @Test
+    void approveBatch_shouldApplyOwnDecisionsAndReportForeignOnes() {
+        UserDto owner = createUser("batchOwner2", "batch-owner2@mail.ru");
+        UserDto stranger = createUser("batchStranger", "batch-stranger@mail.ru");
+        UserDto booker = createUser("batchBooker2", "batch-booker2@mail.ru");
+        ItemDto drill = createItem(owner.getId(), "Дрель");
+        ItemDto foreign = createItem(stranger.getId(), "Пила");
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        ResponseBookingDto first = bookingService.create(booker.getId(),
+                new BookingDto(null, start, start.plusHours(1), drill.getId()));
+        ResponseBookingDto second = bookingService.create(booker.getId(),
+                new BookingDto(null, start.plusHours(2), start.plusHours(3), drill.getId()));
+        ResponseBookingDto other = bookingService.create(booker.getId(),
+                new BookingDto(null, start, start.plusHours(1), foreign.getId()));
+
+        List<BookingBatchResultDto> results = bookingService.approveBatch(owner.getId(), List.of(
+                new BookingDecisionDto(first.getId(), true),
+                new BookingDecisionDto(second.getId(), false),
+                new BookingDecisionDto(other.getId(), true),
+                new BookingDecisionDto(-1L, true)));
+
+        assertThat(results.get(0).getBooking().getStatus(), equalTo(BookingStatus.APPROVED.toString()));
+        assertThat(results.get(1).getBooking().getStatus(), equalTo(BookingStatus.REJECTED.toString()));
+        assertThat(results.get(2).getError(), containsString("только своих товаров"));
+        assertThat(results.get(3).getError(), containsString("не найдено"));
+
+        em.flush();
+        em.clear();
+        assertThat(bookingRepository.findById(first.getId()).orElseThrow().getStatus(), equalTo(BookingStatus.APPROVED));
+        assertThat(bookingRepository.findById(second.getId()).orElseThrow().getStatus(), equalTo(BookingStatus.REJECTED));
+        assertThat(bookingRepository.findById(other.getId()).orElseThrow().getStatus(), equalTo(BookingStatus.WAITING));
+    }
+
+    @Test
+    void approveAndApproveBatch_shouldRejectBookingsOfUnavailableItem() {
+        UserDto owner = createUser("batchOwner4", "batch-owner4@mail.ru");
+        UserDto booker = createUser("batchBooker4", "batch-booker4@mail.ru");
+        ItemDto drill = createItem(owner.getId(), "Дрель");
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        ResponseBookingDto single = bookingService.create(booker.getId(),
+                new BookingDto(null, start, start.plusHours(1), drill.getId()));
+        ResponseBookingDto batched = bookingService.create(booker.getId(),
+                new BookingDto(null, start.plusHours(2), start.plusHours(3), drill.getId()));
+        ItemDto unavailable = new ItemDto();
+        unavailable.setId(drill.getId());
+        unavailable.setAvailable(false);
+        itemService.update(owner.getId(), unavailable);
+
+        assertThrows(ConditionsNotMetException.class, () -> bookingService.approve(owner.getId(), single.getId(), true));
+        List<BookingBatchResultDto> results = bookingService.approveBatch(owner.getId(),
+                List.of(new BookingDecisionDto(batched.getId(), true)));
+
+        assertThat(results.get(0).getError(), containsString("более не доступен"));
+        em.flush();
+        em.clear();
+        assertThat(bookingRepository.findById(single.getId()).orElseThrow().getStatus(), equalTo(BookingStatus.REJECTED));
+        assertThat(bookingRepository.findById(batched.getId()).orElseThrow().getStatus(), equalTo(BookingStatus.REJECTED));
+        List<Long> rejectedEvents = em.createQuery("select event.aggregateId from OutboxEvent event " +
+                        "where event.type = :type and event.aggregateId in :ids", Long.class)
+                .setParameter("type", BookingEvent.REJECTED)
+                .setParameter("ids", List.of(single.getId(), batched.getId()))
+                .getResultList();
+        assertThat(rejectedEvents, containsInAnyOrder(single.getId(), batched.getId()));
+    }
+
+    @Test
+    void approveAndApproveBatch_shouldRefuseToReviseDecision() {
+        UserDto owner = createUser("batchOwner6", "batch-owner6@mail.ru");
+        UserDto booker = createUser("batchBooker6", "batch-booker6@mail.ru");
+        ItemDto drill = createItem(owner.getId(), "Дрель");
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        ResponseBookingDto rejected = bookingService.create(booker.getId(),
+                new BookingDto(null, start, start.plusHours(2), drill.getId()));
+        bookingService.approve(owner.getId(), rejected.getId(), false);
+        ResponseBookingDto approved = bookingService.create(booker.getId(),
+                new BookingDto(null, start.plusHours(1), start.plusHours(3), drill.getId()));
+        bookingService.approve(owner.getId(), approved.getId(), true);
+
+        ConditionsNotMetException ex = assertThrows(ConditionsNotMetException.class,
+                () -> bookingService.approve(owner.getId(), rejected.getId(), true));
+        List<BookingBatchResultDto> results = bookingService.approveBatch(owner.getId(),
+                List.of(new BookingDecisionDto(rejected.getId(), true)));
+
+        assertThat(ex.getMessage(), containsString("уже принято"));
+        assertThat(results.get(0).getError(), containsString("уже принято"));
+        em.flush();
+        em.clear();
+        assertThat(bookingRepository.findById(rejected.getId()).orElseThrow().getStatus(), equalTo(BookingStatus.REJECTED));
+    }
+
+    @Test
+    void createBatchAndApproveBatch_shouldReportNullEntries() {
+        UserDto owner = createUser("batchOwner5", "batch-owner5@mail.ru");
+        UserDto booker = createUser("batchBooker5", "batch-booker5@mail.ru");
+        ItemDto drill = createItem(owner.getId(), "Дрель");
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        List<BookingBatchResultDto> created = bookingService.createBatch(booker.getId(),
+                Arrays.asList(null, new BookingDto(null, start, start.plusHours(1), drill.getId())));
+        List<BookingBatchResultDto> decided = bookingService.approveBatch(owner.getId(),
+                Arrays.asList(new BookingDecisionDto(created.get(1).getBooking().getId(), true), null));
+
+        assertThat(created.get(0).getError(), containsString("Пустая запись"));
+        assertThat(created.get(1).getBooking(), notNullValue());
+        assertThat(decided.get(0).getBooking().getStatus(), equalTo(BookingStatus.APPROVED.toString()));
+        assertThat(decided.get(1).getError(), containsString("Пустая запись"));
+    }
+
+    @Test
+    void createBatch_shouldRejectEmptyBatch() {
+        UserDto booker = createUser("batchBooker3", "batch-booker3@mail.ru");
+
+        assertThrows(ConditionsNotMetException.class, () -> bookingService.createBatch(booker.getId(), List.of()));
+    }
+
+    @Test
+    void create_shouldRejectOverlappingBookingForSameItem() {
+        UserDto ownerDto = new UserDto();
+        ownerDto.setName("owner");
+        ownerDto.setEmail("owner@mail.ru");
+        UserDto owner = userService.create(ownerDto);
+
+        UserDto bookerDto = new UserDto();
+        bookerDto.setName("booker");
+        bookerDto.setEmail("booker@mail.ru");
+        UserDto booker = userService.create(bookerDto);
+
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Дрель");
+        itemDto.setDescription("Ударная");
+        itemDto.setAvailable(true);
+        ItemDto item = itemService.create(owner.getId(), itemDto);
+
+        LocalDateTime start = LocalDateTime.now().plusHours(1).truncatedTo(ChronoUnit.SECONDS);
+
+        BookingDto first = new BookingDto();
+        first.setItemId(item.getId());
+        first.setStart(start);
+        first.setEnd(start.plusHours(2));
+        bookingService.create(booker.getId(), first);
+
+        BookingDto overlapping = new BookingDto();
+        overlapping.setItemId(item.getId());
+        overlapping.setStart(start.plusHours(1));
+        overlapping.setEnd(start.plusHours(3));
+
+        assertThrows(ConditionsNotMetException.class, () -> bookingService.create(booker.getId(), overlapping));
+
+        BookingDto adjacent = new BookingDto();
+        adjacent.setItemId(item.getId());
+        adjacent.setStart(start.plusHours(2));
+        adjacent.setEnd(start.plusHours(3));
+
+        ResponseBookingDto created = bookingService.create(booker.getId(), adjacent);
+
+        assertThat(created.getStatus(), equalTo(BookingStatus.WAITING.toString()));
+    }
+
+    @Test
+    void findForOwnerByState_shouldWalkAllPagesByCursor() {
+        UserDto ownerDto = new UserDto();
+        ownerDto.setName("owner");
+        ownerDto.setEmail("owner@mail.ru");
+        UserDto owner = userService.create(ownerDto);
+
+        UserDto bookerDto = new UserDto();
+        bookerDto.setName("booker");
+        bookerDto.setEmail("booker@mail.ru");
+        UserDto booker = userService.create(bookerDto);
+
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Дрель");
+        itemDto.setDescription("Ударная");
+        itemDto.setAvailable(true);
+        ItemDto item = itemService.create(owner.getId(), itemDto);
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        List<Long> created = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            BookingDto bookingDto = new BookingDto();
+            bookingDto.setItemId(item.getId());
+            bookingDto.setStart(start.plusHours(i));
+            bookingDto.setEnd(start.plusHours(i).plusMinutes(30));
+            created.add(bookingService.create(booker.getId(), bookingDto).getId());
+        }
+
+        List<Long> fetched = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            BookingPage page = bookingService.findForOwnerByState(owner.getId(), BookingState.FUTURE, cursor, 2);
+            page.getBookings().forEach(booking -> fetched.add(booking.getId()));
+            cursor = page.getNext();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(fetched, equalTo(created));
+        assertThat(pages, is(3));
+
+        BookingPage bookerPage = bookingService.findByState(booker.getId(), BookingState.ALL, null, 10);
+        assertThat(bookerPage.getBookings(), hasSize(5));
+        assertThat(bookerPage.getNext(), nullValue());
+    }
+
+    @Test
+    void findByState_shouldLoadThousandBookingsWithBoundedStatementCount() {
+        UserDto owner = userService.create(new UserDto(null, "owner", "bulk-owner@mail.ru"));
+        UserDto booker = userService.create(new UserDto(null, "booker", "bulk-booker@mail.ru"));
+        User bookerRef = em.getReference(User.class, booker.getId());
+
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            ItemDto itemDto = new ItemDto();
+            itemDto.setName("Вещь " + i);
+            itemDto.setDescription("Описание " + i);
+            itemDto.setAvailable(true);
+            Item item = em.getReference(Item.class, itemService.create(owner.getId(), itemDto).getId());
+            Comment comment = new Comment();
+            comment.setText("Отзыв " + i);
+            comment.setAuthorName(booker.getName());
+            comment.setItem(item);
+            em.persist(comment);
+            items.add(item);
+        }
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            bookings.add(new Booking(start.plusHours(i), start.plusHours(i).plusMinutes(30),
+                    items.get(i % items.size()), bookerRef));
+        }
+        bookingRepository.saveAll(bookings);
+        em.flush();
+        em.clear();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            List<ResponseBookingDto> ownerBookings = bookingService.findForOwnerByState(owner.getId(), BookingState.ALL);
+            List<ResponseBookingDto> bookerBookings = bookingService.findByState(booker.getId(), BookingState.FUTURE);
+
+            assertThat(ownerBookings, hasSize(1000));
+            assertThat(bookerBookings, hasSize(1000));
+            assertThat(ownerBookings.get(0).getItem().getComments(), hasSize(1));
+            // по каждому запросу: проверка пользователя, бронирования с вещами и бронирующими, отзывы пачкой
+            assertThat(statistics.getPrepareStatementCount(), lessThanOrEqualTo(6L));
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    private UserDto createUser(String name, String email) {
+        UserDto userDto = new UserDto();
+        userDto.setName(name);
+        userDto.setEmail(email);
+        return userService.create(userDto);
+    }
+
+    private ItemDto createItem(long ownerId, String name) {
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName(name);
+        itemDto.setDescription(name);
+        itemDto.setAvailable(true);
+        return itemService.create(ownerId, itemDto);
+    }
+}
@@ -6,7 +6,11 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import ru.practicum.dto.booking.BookingDto;
 import ru.practicum.dto.booking.ResponseBookingDto;
 import ru.practicum.server.booking.strategy.BookingFetchStateStrategy;
@@ -14,13 +18,19 @@ import ru.practicum.server.booking.strategy.BookingFetchStateStrategyFactory;
 import ru.practicum.server.exceptions.ConditionsNotMetException;
 import ru.practicum.server.exceptions.InvalidOperationException;
 import ru.practicum.server.exceptions.NotFoundException;
+import ru.practicum.server.item.ItemBookingSummary;
+import ru.practicum.server.item.ItemOccupancyCache;
 import ru.practicum.server.item.ItemRepository;
 import ru.practicum.server.item.model.Item;
+import ru.practicum.server.outbox.Outbox;
 import ru.practicum.server.user.User;
+import ru.practicum.dto.user.UserDto;
+import ru.practicum.server.user.UserCache;
 import ru.practicum.server.user.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -36,12 +46,24 @@ public class BookingServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserCache userCache;
+
     @Mock
     private ItemRepository itemRepository;
 
     @Mock
     private BookingFetchStateStrategyFactory strategyFactory;
 
+    @Mock
+    private ItemBookingSummary bookingSummary;
+
+    @Mock
+    private Outbox outbox;
+
+    @Mock
+    private ItemOccupancyCache occupancyCache;
+
     @InjectMocks
     private BookingServiceImpl service;
 
@@ -67,7 +89,7 @@ public class BookingServiceImplTest {
         booking.setId(10L);
 
         Mockito.when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        Mockito.when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        Mockito.when(itemRepository.findByIdForUpdate(itemId)).thenReturn(Optional.of(item));
         Mockito.when(bookingRepository.save(Mockito.any(Booking.class)))
                 .thenReturn(booking);
 
@@ -77,8 +99,13 @@ public class BookingServiceImplTest {
         assertThat(result.getItem().getId(), is(itemId));
         assertThat(result.getBooker().getId(), is(userId));
         Mockito.verify(userRepository).findById(userId);
-        Mockito.verify(itemRepository).findById(itemId);
+        Mockito.verify(itemRepository).findByIdForUpdate(itemId);
+        Mockito.verify(bookingSummary).onBookingCreated(Mockito.eq(item), Mockito.eq(booking),
+                Mockito.any(LocalDateTime.class));
         Mockito.verify(bookingRepository).save(Mockito.any(Booking.class));
+        Mockito.verify(occupancyCache).evict(itemId);
+        Mockito.verify(outbox).append(Mockito.eq(BookingEvent.CREATED), Mockito.eq(10L),
+                Mockito.any(BookingEvent.class));
     }
 
     @Test
@@ -96,7 +123,7 @@ public class BookingServiceImplTest {
 
         assertThat(ex.getMessage(), containsString("Пользователь с id = 1 не найден"));
         Mockito.verify(userRepository).findById(userId);
-        Mockito.verify(itemRepository, Mockito.never()).findById(Mockito.anyLong());
+        Mockito.verify(itemRepository, Mockito.never()).findByIdForUpdate(Mockito.anyLong());
         Mockito.verify(bookingRepository, Mockito.never()).save(Mockito.any());
     }
 
@@ -112,7 +139,7 @@ public class BookingServiceImplTest {
         dto.setItemId(itemId);
 
         Mockito.when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        Mockito.when(itemRepository.findById(itemId)).thenReturn(Optional.empty());
+        Mockito.when(itemRepository.findByIdForUpdate(itemId)).thenReturn(Optional.empty());
 
         NotFoundException ex = assertThrows(
                 NotFoundException.class,
@@ -121,7 +148,7 @@ public class BookingServiceImplTest {
 
         assertThat(ex.getMessage(), containsString("Товар с id = 2 не найден"));
         Mockito.verify(userRepository).findById(userId);
-        Mockito.verify(itemRepository).findById(itemId);
+        Mockito.verify(itemRepository).findByIdForUpdate(itemId);
         Mockito.verify(bookingRepository, Mockito.never()).save(Mockito.any());
     }
 
@@ -143,7 +170,7 @@ public class BookingServiceImplTest {
         dto.setEnd(LocalDateTime.now().plusHours(2));
 
         Mockito.when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        Mockito.when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        Mockito.when(itemRepository.findByIdForUpdate(itemId)).thenReturn(Optional.of(item));
 
         ConditionsNotMetException ex = assertThrows(
                 ConditionsNotMetException.class,
@@ -154,6 +181,36 @@ public class BookingServiceImplTest {
         Mockito.verify(bookingRepository, Mockito.never()).save(Mockito.any());
     }
 
+    @Test
+    void create_shouldThrow_ConditionsNotMet_whenPeriodOverlapsExistingBooking() {
+        long userId = 1L;
+        long itemId = 2L;
+
+        User user = new User("oleg", "oleg@mail.ru");
+        user.setId(userId);
+
+        Item item = new Item();
+        item.setId(itemId);
+        item.setAvailable(true);
+
+        BookingDto dto = new BookingDto();
+        dto.setItemId(itemId);
+        dto.setStart(LocalDateTime.now().plusHours(1));
+        dto.setEnd(LocalDateTime.now().plusHours(2));
+
+        Mockito.when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        Mockito.when(itemRepository.findByIdForUpdate(itemId)).thenReturn(Optional.of(item));
+        Mockito.when(bookingRepository.existsOverlapping(itemId, dto.getStart(), dto.getEnd())).thenReturn(true);
+
+        ConditionsNotMetException ex = assertThrows(
+                ConditionsNotMetException.class,
+                () -> service.create(userId, dto)
+        );
+
+        assertThat(ex.getMessage(), containsString("уже забронирован"));
+        Mockito.verify(bookingRepository, Mockito.never()).save(Mockito.any());
+    }
+
 
     @Test
     void findById_shouldReturn_forBooker() {
@@ -245,6 +302,9 @@ public class BookingServiceImplTest {
 
         assertThat(dto.getStatus(), is("APPROVED"));
         Mockito.verify(bookingRepository).save(Mockito.any(Booking.class));
+        Mockito.verify(occupancyCache).evict(3L);
+        Mockito.verify(outbox).append(Mockito.eq(BookingEvent.APPROVED), Mockito.eq(bookingId),
+                Mockito.any(BookingEvent.class));
     }
 
     @Test
@@ -284,8 +344,12 @@ public class BookingServiceImplTest {
         item.setOwner(owner);
         item.setAvailable(false);
 
+        User booker = new User("booker", "b@mail.ru");
+        booker.setId(1L);
+
         Booking booking = new Booking();
         booking.setId(bookingId);
+        booking.setBooker(booker);
         booking.setItem(item);
         booking.setStatus(BookingStatus.WAITING);
 
@@ -301,6 +365,8 @@ public class BookingServiceImplTest {
         assertThat(ex.getMessage(), containsString("более не доступен"));
         assertThat(booking.getStatus(), is(BookingStatus.REJECTED));
         Mockito.verify(bookingRepository).save(booking);
+        Mockito.verify(outbox).append(Mockito.eq(BookingEvent.REJECTED), Mockito.eq(bookingId),
+                Mockito.any(BookingEvent.class));
     }
 
 
@@ -309,7 +375,7 @@ public class BookingServiceImplTest {
         long userId = 1L;
         BookingState state = BookingState.CURRENT;
 
-        Mockito.when(userRepository.existsById(userId)).thenReturn(true);
+        Mockito.when(userCache.find(userId)).thenReturn(Optional.of(new UserDto(userId, "oleg", "oleg@mail.ru")));
 
         User booker = new User("oleg", "oleg@mail.ru");
         booker.setId(5L);
@@ -338,7 +404,7 @@ public class BookingServiceImplTest {
         assertThat(result.get(0).getBooker().getId(), is(5L));
         assertThat(result.get(0).getItem().getId(), is(3L));
 
-        Mockito.verify(userRepository).existsById(userId);
+        Mockito.verify(userCache).find(userId);
         Mockito.verify(strategyFactory).findStrategy(state);
         Mockito.verify(strategy).getBookings(Mockito.eq(userId), Mockito.any(Sort.class));
     }
@@ -348,7 +414,7 @@ public class BookingServiceImplTest {
     void findByState_shouldThrow_NotFound_whenUserMissing() {
         long userId = 1L;
 
-        Mockito.when(userRepository.existsById(userId)).thenReturn(false);
+        Mockito.when(userCache.find(userId)).thenReturn(Optional.empty());
 
         NotFoundException ex = assertThrows(
                 NotFoundException.class,
@@ -364,7 +430,7 @@ public class BookingServiceImplTest {
     void findForOwnerByState_ALL() {
         long userId = 2L;
 
-        Mockito.when(userRepository.existsById(userId)).thenReturn(true);
+        Mockito.when(userCache.find(userId)).thenReturn(Optional.of(new UserDto(userId, "oleg", "oleg@mail.ru")));
 
         User booker = new User("oleg", "oleg@mail.ru");
         booker.setId(5L);
@@ -394,7 +460,7 @@ public class BookingServiceImplTest {
     void findForOwnerByState_shouldThrow_NotFound_whenUserMissing() {
         long userId = 2L;
 
-        Mockito.when(userRepository.existsById(userId)).thenReturn(false);
+        Mockito.when(userCache.find(userId)).thenReturn(Optional.empty());
 
         NotFoundException ex = assertThrows(
                 NotFoundException.class,
@@ -404,4 +470,76 @@ public class BookingServiceImplTest {
         assertThat(ex.getMessage(), containsString("Пользователь с id = 2 не найден"));
         Mockito.verify(bookingRepository, Mockito.never()).findAllByItem_Owner_Id(Mockito.anyLong(), Mockito.any());
     }
+
+    @Test
+    void findByState_withPage_shouldReturnNextCursor_whenMoreBookingsExist() {
+        long userId = 1L;
+        BookingState state = BookingState.ALL;
+
+        Mockito.when(userCache.find(userId)).thenReturn(Optional.of(new UserDto(userId, "oleg", "oleg@mail.ru")));
+
+        User booker = new User("oleg", "oleg@mail.ru");
+        booker.setId(userId);
+
+        Item item = new Item();
+        item.setId(3L);
+        item.setOwner(booker);
+        item.setAvailable(true);
+
+        Booking booking = new Booking();
+        booking.setId(10L);
+        booking.setStart(LocalDateTime.of(2030, 1, 1, 12, 0));
+        booking.setStatus(BookingStatus.WAITING);
+        booking.setBooker(booker);
+        booking.setItem(item);
+
+        BookingFetchStateStrategy strategy = Mockito.mock(BookingFetchStateStrategy.class);
+        Window<Booking> window = Window.from(List.of(booking),
+                index -> ScrollPosition.forward(Map.of("start", booking.getStart(), "id", booking.getId())), true);
+
+        Mockito.when(strategyFactory.findStrategy(state)).thenReturn(strategy);
+        Mockito.when(strategy.getBookings(Mockito.eq(userId), Mockito.any(ScrollPosition.class),
+                        Mockito.eq(Limit.of(1)), Mockito.any(Sort.class)))
+                .thenReturn(window);
+
+        BookingPage page = service.findByState(userId, state, null, 1);
+
+        assertThat(page.getBookings(), hasSize(1));
+        assertThat(page.getBookings().get(0).getId(), is(10L));
+        assertThat(page.getNext(), notNullValue());
+
+        Mockito.when(strategy.getBookings(Mockito.eq(userId), Mockito.any(KeysetScrollPosition.class),
+                        Mockito.eq(Limit.of(1)), Mockito.any(Sort.class)))
+                .thenReturn(Window.from(List.of(), index -> ScrollPosition.keyset()));
+
+        BookingPage last = service.findByState(userId, state, page.getNext(), 1);
+
+        assertThat(last.getBookings(), empty());
+        assertThat(last.getNext(), nullValue());
+    }
+
+    @Test
+    void findForOwnerByState_withPage_shouldThrow_whenSizeNotPositive() {
+        long userId = 2L;
+
+        Mockito.when(userCache.find(userId)).thenReturn(Optional.of(new UserDto(userId, "oleg", "oleg@mail.ru")));
+
+        assertThrows(
+                ConditionsNotMetException.class,
+                () -> service.findForOwnerByState(userId, BookingState.ALL, null, 0)
+        );
+    }
+
+    @Test
+    void findByState_withPage_shouldThrow_whenSizeTooLarge() {
+        long userId = 1L;
+
+        Mockito.when(userCache.find(userId)).thenReturn(Optional.of(new UserDto(userId, "oleg", "oleg@mail.ru")));
+
+        assertThrows(
+                ConditionsNotMetException.class,
+                () -> service.findByState(userId, BookingState.ALL, null, 1_000_000)
+        );
+        Mockito.verifyNoInteractions(strategyFactory);
+    }
 }
@@ -0,0 +1,56 @@
+package ru.practicum.server.configuration;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ConcurrencyLimitingDataSourceTest {
+
+    private final DataSource target = Mockito.mock(DataSource.class);
+
+    @Test
+    void getConnection_shouldHoldPermitUntilConnectionClosed() throws SQLException {
+        Connection connection = Mockito.mock(Connection.class);
+        Mockito.when(target.getConnection()).thenReturn(connection);
+        ConcurrencyLimitingDataSource dataSource = new ConcurrencyLimitingDataSource(target, 2, Duration.ofMillis(10));
+
+        Connection first = dataSource.getConnection();
+        assertThat(dataSource.availablePermits(), is(1));
+
+        first.close();
+        first.close();
+
+        assertThat(dataSource.availablePermits(), is(2));
+        Mockito.verify(connection, Mockito.times(2)).close();
+    }
+
+    @Test
+    void getConnection_shouldFail_whenLimitReachedForAcquireTimeout() throws SQLException {
+        Mockito.when(target.getConnection()).thenReturn(Mockito.mock(Connection.class));
+        ConcurrencyLimitingDataSource dataSource = new ConcurrencyLimitingDataSource(target, 1, Duration.ofMillis(10));
+
+        dataSource.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        Mockito.verify(target, Mockito.times(1)).getConnection();
+    }
+
+    @Test
+    void getConnection_shouldReleasePermit_whenTargetFails() throws SQLException {
+        Mockito.when(target.getConnection()).thenThrow(new SQLException("down"));
+        ConcurrencyLimitingDataSource dataSource = new ConcurrencyLimitingDataSource(target, 1, Duration.ofMillis(10));
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+
+        assertThat(dataSource.availablePermits(), is(1));
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.server.configuration;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.server.user.User;
+import ru.practicum.server.user.UserRepository;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class EtagIntegrationTest {
+
+    private final MockMvc mvc;
+    private final UserRepository userRepository;
+
+    @Test
+    void get_shouldReturnNotModifiedForMatchingEtag() throws Exception {
+        User user = new User();
+        user.setName("Alex");
+        user.setEmail("etag@mail.ru");
+        long userId = userRepository.save(user).getId();
+
+        String etag = mvc.perform(get("/users/{userId}", userId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag, notNullValue());
+
+        mvc.perform(get("/users/{userId}", userId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mvc.perform(get("/users/{userId}", userId).header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,116 @@
+package ru.practicum.server.configuration;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.dto.item.ItemDto;
+import ru.practicum.dto.user.UserDto;
+import ru.practicum.server.item.ItemRepository;
+import ru.practicum.server.item.ItemService;
+import ru.practicum.server.user.User;
+import ru.practicum.server.user.UserRepository;
+import ru.practicum.server.user.UserService;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Реплика - отдельная встроенная база с таблицей пользователей и управляемым отставанием,
+ * поэтому по содержимому ответа видно, куда ушёл запрос.
+ */
+@SpringBootTest(properties = {
+        "shareit.datasource.replica.url=jdbc:h2:mem:shareit-replica;DB_CLOSE_DELAY=-1",
+        "shareit.datasource.replica.lag-query=SELECT seconds FROM replica_lag",
+        "shareit.datasource.replica.max-lag=PT5S",
+        "shareit.datasource.replica.lag-check-interval=PT24H"
+})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ReadReplicaRoutingIntegrationTest {
+
+    private final ReadReplica readReplica;
+    private final UserService userService;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ItemService itemService;
+    private final ItemRepository itemRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUpReplica() {
+        replica = new JdbcTemplate(readReplica.dataSource());
+        replica.execute("CREATE TABLE IF NOT EXISTS users (id BIGINT PRIMARY KEY, name VARCHAR(64), email VARCHAR(255))");
+        replica.execute("CREATE TABLE IF NOT EXISTS replica_lag (seconds DOUBLE PRECISION)");
+        replica.update("DELETE FROM users");
+        replica.update("DELETE FROM replica_lag");
+        replica.update("INSERT INTO users (id, name, email) VALUES (1000, 'replica', 'replica@mail.ru')");
+    }
+
+    @Test
+    void readOnlyTransaction_shouldUseReplicaWhileInSync() {
+        replica.update("INSERT INTO replica_lag (seconds) VALUES (0.5)");
+        readReplica.checkLag();
+
+        assertThat(readReplica.isAvailable(), is(true));
+        assertThat(userService.findAll().stream().map(UserDto::getName).toList(), contains("replica"));
+        assertThat(transactionTemplate.execute(status -> userRepository.findAll()).stream().map(User::getName).toList(),
+                not(hasItem("replica")));
+    }
+
+    @AfterEach
+    void deleteRoutingUsers() {
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE 'routing%'");
+    }
+
+    /**
+     * Реплика в пределах допустимого отставания, но ещё не получила только что записанные данные.
+     */
+    @Test
+    void lookupsAndWrites_shouldUsePrimaryWhileReplicaInSync() {
+        replica.update("INSERT INTO replica_lag (seconds) VALUES (0.5)");
+        readReplica.checkLag();
+        UserDto owner = userService.create(new UserDto(null, "owner", "routing-owner@mail.ru"));
+
+        assertThat(userService.findById(owner.getId()).getEmail(), is("routing-owner@mail.ru"));
+        assertThat(userRepository.findById(1000L).isPresent(), is(false));
+
+        UserDto renamed = userService.update(owner.getId(), new UserDto(null, "renamed", null));
+        assertThat(renamed.getName(), is("renamed"));
+        assertThat(userRepository.findById(owner.getId()).orElseThrow().getName(), is("renamed"));
+
+        ItemDto item = new ItemDto();
+        item.setName("Дрель");
+        item.setDescription("ударная");
+        item.setAvailable(true);
+        ItemDto created = itemService.create(owner.getId(), item);
+        ItemDto patch = new ItemDto();
+        patch.setId(created.getId());
+        patch.setDescription("аккумуляторная");
+        itemService.update(owner.getId(), patch);
+
+        assertThat(itemRepository.findById(created.getId()).orElseThrow().getDescription(), is("аккумуляторная"));
+    }
+
+    @Test
+    void readOnlyTransaction_shouldFallBackToPrimaryWhenReplicaLags() {
+        replica.update("INSERT INTO replica_lag (seconds) VALUES (60)");
+        readReplica.checkLag();
+
+        assertThat(readReplica.isAvailable(), is(false));
+        assertThat(userService.findAll().stream().map(UserDto::getName).toList(), not(hasItem("replica")));
+    }
+
+    @Test
+    void readOnlyTransaction_shouldFallBackToPrimaryWhenLagUnknown() {
+        readReplica.checkLag();
+
+        assertThat(readReplica.isAvailable(), is(false));
+        assertThat(userService.findAll().stream().map(UserDto::getName).toList(), not(hasItem("replica")));
+    }
+}
@@ -0,0 +1,59 @@
+package ru.practicum.server.configuration;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.slf4j.MDC;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@ExtendWith(OutputCaptureExtension.class)
+class RequestLogFilterTest {
+
+    @Test
+    void filter_shouldPutRequestIdIntoMdcAndLogSummary(CapturedOutput output) throws Exception {
+        RequestLogFilter filter = new RequestLogFilter(Duration.ofMinutes(1), 1.0);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/1");
+        request.addHeader(RequestLogFilter.REQUEST_ID_HEADER, "req-1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<String> requestId = new AtomicReference<>();
+
+        filter.doFilter(request, response, (req, res) -> requestId.set(MDC.get(RequestLogFilter.MDC_KEY)));
+
+        assertThat(requestId.get(), equalTo("req-1"));
+        assertThat(response.getHeader(RequestLogFilter.REQUEST_ID_HEADER), equalTo("req-1"));
+        assertThat(MDC.get(RequestLogFilter.MDC_KEY), nullValue());
+        assertThat(output.getOut(), containsString("method=GET path=/users/1 status=200"));
+    }
+
+    @Test
+    void filter_shouldGenerateRequestIdAndSkipFastRequestsOutsideSample(CapturedOutput output) throws Exception {
+        RequestLogFilter filter = new RequestLogFilter(Duration.ofMinutes(1), 0.0);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/2");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> {
+        });
+
+        assertThat(response.getHeader(RequestLogFilter.REQUEST_ID_HEADER), not(emptyOrNullString()));
+        assertThat(output.getOut(), not(containsString("path=/users/2")));
+    }
+
+    @Test
+    void filter_shouldAlwaysLogServerErrors(CapturedOutput output) throws Exception {
+        RequestLogFilter filter = new RequestLogFilter(Duration.ofMinutes(1), 0.0);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/bookings");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> ((MockHttpServletResponse) res).setStatus(500));
+
+        assertThat(output.getOut(), containsString("method=POST path=/bookings status=500"));
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.server.configuration;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.server.user.User;
+import ru.practicum.server.user.UserRepository;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class RequestMetricsIntegrationTest {
+
+    private final MockMvc mvc;
+    private final EntityManager em;
+    private final MeterRegistry registry;
+    private final UserRepository userRepository;
+
+    @Test
+    void request_shouldRecordStatementsEntityLoadsAndServiceTimer() throws Exception {
+        User user = new User();
+        user.setName("Alex");
+        user.setEmail("metrics@mail.ru");
+        long userId = userRepository.saveAndFlush(user).getId();
+        em.clear();
+
+        Snapshot before = snapshot();
+
+        mvc.perform(get("/users/{userId}", userId)).andExpect(status().isOk());
+
+        Snapshot after = snapshot();
+        assertThat(after.requests() - before.requests(), equalTo(1L));
+        assertThat(after.statements() - before.statements(), greaterThanOrEqualTo(1.0));
+        assertThat(after.entityLoads() - before.entityLoads(), greaterThanOrEqualTo(1.0));
+        assertThat(after.serviceCalls() - before.serviceCalls(), greaterThanOrEqualTo(1L));
+    }
+
+    private Snapshot snapshot() {
+        DistributionSummary statements = registry.find(RequestMetricsInterceptor.STATEMENTS)
+                .tags("method", "GET", "uri", "/users/{userId}").summary();
+        DistributionSummary loads = registry.find(RequestMetricsInterceptor.ENTITY_LOADS)
+                .tags("method", "GET", "uri", "/users/{userId}").summary();
+        Timer service = registry.find("shareit.service").tags("method", "findById").timer();
+        return new Snapshot(statements == null ? 0 : statements.count(),
+                statements == null ? 0 : statements.totalAmount(),
+                loads == null ? 0 : loads.totalAmount(),
+                service == null ? 0 : service.count());
+    }
+
+    private record Snapshot(long requests, double statements, double entityLoads, long serviceCalls) {
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.dto.item.CommentDto;
+import ru.practicum.dto.item.ItemAvailabilityDto;
 import ru.practicum.dto.item.ItemDto;
 import ru.practicum.dto.item.NewCommentDto;
 import ru.practicum.dto.item.OwnerItemDto;
@@ -147,11 +148,29 @@ class ItemControllerTest {
         verify(service).delete(1L, 1L);
     }
 
+    @Test
+    void findAvailability_shouldPassPeriod() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 12, 0);
+        LocalDateTime to = from.plusDays(3);
+        ItemAvailabilityDto availability = new ItemAvailabilityDto(1L, true, from, to,
+                List.of(new ItemAvailabilityDto.Interval(from, to)), List.of());
+        when(service.findAvailability(1L, from, to)).thenReturn(availability);
+
+        mvc.perform(get("/items/{itemId}/availability", 1L)
+                        .param("from", "2030-01-01T12:00:00")
+                        .param("to", "2030-01-04T12:00:00")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.available", is(true)))
+                .andExpect(jsonPath("$.free", hasSize(1)))
+                .andExpect(jsonPath("$.occupied", hasSize(0)));
+    }
+
     @Test
     void search_shouldReturnListWhenTextNotBlank() throws Exception {
         ItemDto itemDto = buildItemDto();
 
-        when(service.search(anyString()))
+        when(service.search(anyString(), isNull(), isNull(), eq(0), eq(20)))
                 .thenReturn(List.of(itemDto));
 
         mvc.perform(get("/items/search")
@@ -164,6 +183,21 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$[0].name", is(itemDto.getName())));
     }
 
+    @Test
+    void search_shouldPassPeriod() throws Exception {
+        when(service.search("дрель", LocalDateTime.of(2030, 1, 1, 12, 0), LocalDateTime.of(2030, 1, 3, 12, 0), 0, 20))
+                .thenReturn(List.of(buildItemDto()));
+
+        mvc.perform(get("/items/search")
+                        .param("text", "дрель")
+                        .param("start", "2030-01-01T12:00:00")
+                        .param("end", "2030-01-03T12:00:00")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
     @Test
     void search_shouldReturnEmptyListWhenTextBlank() throws Exception {
         mvc.perform(get("/items/search")
@@ -0,0 +1,93 @@
+package ru.practicum.server.item;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import ru.practicum.server.booking.BookingRepository;
+import ru.practicum.server.item.model.Item;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class ItemOccupancyCacheTest {
+
+    private final ItemRepository itemRepository = Mockito.mock(ItemRepository.class);
+    private final BookingRepository bookingRepository = Mockito.mock(BookingRepository.class);
+    private final PlatformTransactionManager transactionManager = Mockito.mock(PlatformTransactionManager.class);
+    private final ItemOccupancyCache cache = new ItemOccupancyCache(itemRepository, bookingRepository,
+            transactionManager,
+            new TransactionAwareCacheManagerProxy(new CaffeineCacheManager(ItemOccupancyCache.ITEM_OCCUPANCY)));
+
+    ItemOccupancyCacheTest() {
+        Item item = new Item();
+        item.setId(1L);
+        item.setAvailable(true);
+        Mockito.when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        Mockito.when(bookingRepository.findOccupiedIntervalsAfter(ArgumentMatchers.eq(1L), ArgumentMatchers.any()))
+                .thenReturn(List.of());
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void find_shouldLoadOnceInReadWriteTransaction() {
+        cache.find(1L);
+        cache.find(1L);
+
+        Mockito.verify(itemRepository).findById(1L);
+        Mockito.verify(transactionManager).getTransaction(ArgumentMatchers.argThat(
+                (TransactionDefinition definition) -> !definition.isReadOnly()));
+    }
+
+    @Test
+    void find_shouldDropLoadedEntry_whenEvictedDuringLoad() {
+        Mockito.when(bookingRepository.findOccupiedIntervalsAfter(ArgumentMatchers.eq(1L), ArgumentMatchers.any()))
+                .thenAnswer(invocation -> {
+                    cache.evict(1L);
+                    return List.of();
+                });
+
+        cache.find(1L);
+        cache.find(1L);
+
+        Mockito.verify(itemRepository, Mockito.times(2)).findById(1L);
+    }
+
+    @Test
+    void evict_shouldWaitForCommit() {
+        cache.find(1L);
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.evict(1L);
+        cache.find(1L);
+        Mockito.verify(itemRepository).findById(1L);
+
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        TransactionSynchronizationManager.clearSynchronization();
+        cache.find(1L);
+        Mockito.verify(itemRepository, Mockito.times(2)).findById(1L);
+    }
+
+    @Test
+    void find_shouldReturnLoadedOccupancy() {
+        ItemOccupancy occupancy = cache.find(1L);
+
+        assertThat(occupancy.available(), is(true));
+        assertThat(occupancy.bookings().isEmpty(), is(true));
+    }
+}
@@ -1,5 +1,6 @@
 package ru.practicum.server.item;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,10 +12,18 @@ import ru.practicum.dto.item.CommentDto;
 import ru.practicum.dto.item.ItemDto;
 import ru.practicum.dto.item.NewCommentDto;
 import ru.practicum.dto.user.UserDto;
+import ru.practicum.dto.item.OwnerItemDto;
+import ru.practicum.server.booking.Booking;
+import ru.practicum.server.booking.BookingRepository;
 import ru.practicum.server.booking.BookingService;
+import ru.practicum.server.item.model.Item;
+import ru.practicum.server.user.User;
+import ru.practicum.server.user.UserRepository;
 import ru.practicum.server.user.UserService;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -28,6 +37,11 @@ class ItemServiceImplIntegrationTest {
     private final ItemService itemService;
     private final UserService userService;
     private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final ItemBookingSummary bookingSummary;
+    private final EntityManager em;
 
     @Test
     void createComment_shouldCreateComment_whenBookingExists() {
@@ -93,4 +107,168 @@ class ItemServiceImplIntegrationTest {
 
         assertThat(ex.getMessage(), containsString("Можно оставлять отзыв только на товары"));
     }
+
+    @Test
+    void findAllForUser_shouldResolveLastAndNextBookingsPerItem() {
+        UserDto ownerDto = new UserDto();
+        ownerDto.setName("owner3");
+        ownerDto.setEmail("owner3@mail.ru");
+        UserDto owner = userService.create(ownerDto);
+
+        UserDto bookerDto = new UserDto();
+        bookerDto.setName("booker3");
+        bookerDto.setEmail("booker3@mail.ru");
+        User booker = userRepository.findById(userService.create(bookerDto).getId()).orElseThrow();
+
+        ItemDto drillDto = new ItemDto();
+        drillDto.setName("Дрель");
+        drillDto.setDescription("ударная");
+        drillDto.setAvailable(true);
+        Item drill = itemRepository.findById(itemService.create(owner.getId(), drillDto).getId()).orElseThrow();
+
+        ItemDto sawDto = new ItemDto();
+        sawDto.setName("Пила");
+        sawDto.setDescription("цепная");
+        sawDto.setAvailable(true);
+        ItemDto saw = itemService.create(owner.getId(), sawDto);
+
+        LocalDateTime now = LocalDateTime.now();
+        Booking older = saveBooking(new Booking(now.minusDays(5), now.minusDays(4), drill, booker), now);
+        Booking last = saveBooking(new Booking(now.minusDays(3), now.minusDays(2), drill, booker), now);
+        Booking later = saveBooking(new Booking(now.plusDays(3), now.plusDays(4), drill, booker), now);
+        Booking next = saveBooking(new Booking(now.plusDays(1), now.plusDays(2), drill, booker), now);
+
+        List<OwnerItemDto> items = itemService.findAllForUser(owner.getId());
+
+        assertThat(items, hasSize(2));
+        OwnerItemDto drillResult = items.stream().filter(i -> i.getId().equals(drill.getId())).findFirst().orElseThrow();
+        assertThat(drillResult.getLastBooking().getId(), is(last.getId()));
+        assertThat(drillResult.getNextBooking().getId(), is(next.getId()));
+        assertThat(drillResult.getLastBooking().getId(), not(older.getId()));
+        assertThat(drillResult.getNextBooking().getId(), not(later.getId()));
+
+        OwnerItemDto sawResult = items.stream().filter(i -> i.getId().equals(saw.getId())).findFirst().orElseThrow();
+        assertThat(sawResult.getLastBooking(), nullValue());
+        assertThat(sawResult.getNextBooking(), nullValue());
+        assertThat(sawResult.getComments(), empty());
+    }
+
+    @Test
+    void findById_shouldRecomputeStaleSummaryForOwner() {
+        UserDto owner = createUser("owner5", "owner5@mail.ru");
+        User booker = userRepository.findById(createUser("booker5", "booker5@mail.ru").getId()).orElseThrow();
+        Item drill = itemRepository.findById(createItem(owner.getId(), "Дрель", "ударная", true).getId())
+                .orElseThrow();
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Booking current = bookingRepository.save(new Booking(now.minusHours(1), now.plusHours(1), drill, booker));
+        Booking next = bookingRepository.save(new Booking(now.plusDays(1), now.plusDays(2), drill, booker));
+        drill.setBookingSummaryValidUntil(now.minusSeconds(1));
+        itemRepository.saveAndFlush(drill);
+        em.clear();
+
+        OwnerItemDto result = (OwnerItemDto) itemService.findById(owner.getId(), drill.getId());
+
+        assertThat(result.getLastBooking(), nullValue());
+        assertThat(result.getNextBooking().getId(), is(next.getId()));
+        Item stored = itemRepository.findById(drill.getId()).orElseThrow();
+        assertThat(stored.getBookingSummaryValidUntil(), is(current.getEnd()));
+    }
+
+    @Test
+    void rollForward_shouldRefreshStaleSummaries() {
+        UserDto owner = createUser("owner6", "owner6@mail.ru");
+        User booker = userRepository.findById(createUser("booker6", "booker6@mail.ru").getId()).orElseThrow();
+        Item drill = itemRepository.findById(createItem(owner.getId(), "Дрель", "ударная", true).getId())
+                .orElseThrow();
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Booking last = bookingRepository.save(new Booking(now.minusDays(2), now.minusDays(1), drill, booker));
+        Booking next = bookingRepository.save(new Booking(now.plusDays(1), now.plusDays(2), drill, booker));
+        drill.setBookingSummaryValidUntil(LocalDateTime.of(1970, 1, 1, 0, 0));
+        itemRepository.saveAndFlush(drill);
+        em.clear();
+
+        bookingSummary.rollForward();
+        em.flush();
+        em.clear();
+
+        Item stored = itemRepository.findByIdWithRelations(drill.getId());
+        assertThat(stored.getLastBooking().getId(), is(last.getId()));
+        assertThat(stored.getNextBooking().getId(), is(next.getId()));
+        assertThat(stored.getBookingSummaryValidUntil(), is(next.getStart()));
+    }
+
+    @Test
+    void search_shouldRankNameMatchesFirstAndPageResults() {
+        UserDto ownerDto = new UserDto();
+        ownerDto.setName("owner4");
+        ownerDto.setEmail("owner4@mail.ru");
+        UserDto owner = userService.create(ownerDto);
+
+        ItemDto byDescription = createItem(owner.getId(), "Набор", "бита для дрели", true);
+        ItemDto containsName = createItem(owner.getId(), "Мини-дрель", "гравер", true);
+        ItemDto prefixName = createItem(owner.getId(), "Дрель ударная", "мощная", true);
+        createItem(owner.getId(), "Дрель старая", "сломана", false);
+
+        List<ItemDto> firstPage = itemService.search("дрел", null, null, 0, 2);
+        List<ItemDto> secondPage = itemService.search("дрел", null, null, 2, 2);
+
+        assertThat(firstPage.stream().map(ItemDto::getId).toList(),
+                contains(prefixName.getId(), containsName.getId()));
+        assertThat(secondPage.stream().map(ItemDto::getId).toList(), contains(byDescription.getId()));
+        assertThat(itemService.search("дрел", null, null, 1, 2).stream().map(ItemDto::getId).toList(),
+                contains(containsName.getId(), byDescription.getId()));
+    }
+
+    @Test
+    void search_shouldSkipItemsWithApprovedBookingsInPeriod() {
+        UserDto owner = createUser("owner5", "owner5@mail.ru");
+        UserDto booker = createUser("booker5", "booker5@mail.ru");
+        ItemDto approved = createItem(owner.getId(), "Дрель ударная", "занята", true);
+        ItemDto waiting = createItem(owner.getId(), "Дрель аккумуляторная", "ждёт подтверждения", true);
+        ItemDto free = createItem(owner.getId(), "Дрель сетевая", "свободна", true);
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime end = start.plusDays(2);
+
+        ResponseBookingDto booking = bookingService.create(booker.getId(),
+                bookingDto(approved.getId(), start.plusDays(1), end.plusDays(1)));
+        bookingService.approve(owner.getId(), booking.getId(), true);
+        bookingService.create(booker.getId(), bookingDto(waiting.getId(), start, end));
+        bookingService.create(booker.getId(), bookingDto(free.getId(), end, end.plusDays(1)));
+
+        assertThat(itemService.search("дрел", start, end, 0, 10).stream().map(ItemDto::getId).toList(),
+                contains(waiting.getId(), free.getId()));
+        assertThat(itemService.search("дрел", end.plusDays(1), end.plusDays(2), 0, 10).stream()
+                .map(ItemDto::getId).toList(), contains(approved.getId(), waiting.getId(), free.getId()));
+    }
+
+    private ItemDto createItem(long ownerId, String name, String description, boolean available) {
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName(name);
+        itemDto.setDescription(description);
+        itemDto.setAvailable(available);
+        return itemService.create(ownerId, itemDto);
+    }
+
+    private UserDto createUser(String name, String email) {
+        UserDto userDto = new UserDto();
+        userDto.setName(name);
+        userDto.setEmail(email);
+        return userService.create(userDto);
+    }
+
+    private BookingDto bookingDto(long itemId, LocalDateTime start, LocalDateTime end) {
+        BookingDto dto = new BookingDto();
+        dto.setItemId(itemId);
+        dto.setStart(start);
+        dto.setEnd(end);
+        return dto;
+    }
+
+    private Booking saveBooking(Booking booking, LocalDateTime now) {
+        Booking saved = bookingRepository.save(booking);
+        bookingSummary.onBookingCreated(booking.getItem(), saved, now);
+        return saved;
+    }
 }
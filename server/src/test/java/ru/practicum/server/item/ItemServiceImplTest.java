@@ -7,18 +7,28 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.dto.item.CommentDto;
+import ru.practicum.dto.item.ItemAvailabilityDto;
 import ru.practicum.dto.item.ItemDto;
 import ru.practicum.dto.item.NewCommentDto;
 import ru.practicum.dto.item.OwnerItemDto;
 import ru.practicum.server.booking.Booking;
+import ru.practicum.server.booking.BookingInterval;
 import ru.practicum.server.booking.BookingRepository;
+import ru.practicum.server.exceptions.ConditionsNotMetException;
 import ru.practicum.server.exceptions.InvalidOperationException;
 import ru.practicum.server.exceptions.NotFoundException;
 import ru.practicum.server.item.model.Comment;
 import ru.practicum.server.item.model.Item;
+import ru.practicum.server.item.search.ItemSearcher;
+import ru.practicum.server.pagination.Cursors;
+import ru.practicum.server.pagination.OffsetPageRequest;
 import ru.practicum.server.request.ItemRequest;
+import ru.practicum.server.request.ItemRequestFeed;
 import ru.practicum.server.request.ItemRequestRepository;
+import ru.practicum.dto.user.UserDto;
 import ru.practicum.server.user.User;
+import ru.practicum.server.user.UserCache;
+import ru.practicum.server.user.UserMapper;
 import ru.practicum.server.user.UserRepository;
 
 import java.time.LocalDateTime;
@@ -37,11 +47,21 @@ class ItemServiceImplTest {
     @Mock
     private UserRepository userRepository;
     @Mock
+    private UserCache userCache;
+    @Mock
     private BookingRepository bookingRepository;
     @Mock
     private CommentRepository commentRepository;
     @Mock
     private ItemRequestRepository requestRepository;
+    @Mock
+    private ItemSearcher searcher;
+    @Mock
+    private ItemBookingSummary bookingSummary;
+    @Mock
+    private ItemRequestFeed requestFeed;
+    @Mock
+    private ItemOccupancyCache occupancyCache;
 
     @InjectMocks
     private ItemServiceImpl service;
@@ -57,23 +77,23 @@ class ItemServiceImplTest {
         item.setId(10L);
         item.setOwner(owner);
 
-        Booking past = new Booking();
-        past.setId(100L);
-        past.setItem(item);
-        past.setStart(LocalDateTime.now().minusDays(2));
-        past.setEnd(LocalDateTime.now().minusDays(1));
+        Comment comment = new Comment();
+        comment.setId(300L);
+        comment.setText("отлично");
+        comment.setItem(item);
 
-        Booking future = new Booking();
+        Booking past = new Booking(LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1), item, owner);
+        past.setId(100L);
+        Booking future = new Booking(LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), item, owner);
         future.setId(200L);
-        future.setItem(item);
-        future.setStart(LocalDateTime.now().plusDays(1));
-        future.setEnd(LocalDateTime.now().plusDays(2));
-
-        item.setBookings(List.of(past, future));
-        item.setComments(List.of());
+        item.setLastBooking(past);
+        item.setNextBooking(future);
+        item.setBookingSummaryValidUntil(future.getStart());
 
         Mockito.when(itemRepository.findAllByOwnerId(userId))
                 .thenReturn(List.of(item));
+        Mockito.when(commentRepository.findAllByItemIn(List.of(item)))
+                .thenReturn(List.of(comment));
 
         List<OwnerItemDto> result = service.findAllForUser(userId);
 
@@ -84,7 +104,47 @@ class ItemServiceImplTest {
         assertThat(dto.getNextBooking(), notNullValue());
         assertThat(dto.getLastBooking().getId(), is(100L));
         assertThat(dto.getNextBooking().getId(), is(200L));
+        assertThat(dto.getComments(), hasSize(1));
+        assertThat(dto.getComments().get(0).getId(), is(300L));
         Mockito.verify(itemRepository).findAllByOwnerId(userId);
+        Mockito.verifyNoInteractions(bookingRepository, bookingSummary);
+    }
+
+    @Test
+    void findAllForUser_shouldRefreshStaleSummariesUnderLock() {
+        long userId = 1L;
+
+        User owner = new User("oleg", "oleg@mail.ru");
+        owner.setId(userId);
+
+        Item fresh = new Item();
+        fresh.setId(10L);
+        fresh.setOwner(owner);
+        fresh.setBookingSummaryValidUntil(LocalDateTime.now().plusHours(1));
+
+        Item stale = new Item();
+        stale.setId(11L);
+        stale.setOwner(owner);
+        stale.setBookingSummaryValidUntil(LocalDateTime.now().minusMinutes(1));
+
+        Mockito.when(itemRepository.findAllByOwnerId(userId)).thenReturn(List.of(fresh, stale));
+        Mockito.when(itemRepository.findAllByIdForUpdate(List.of(11L))).thenReturn(List.of(stale));
+        Mockito.when(commentRepository.findAllByItemIn(List.of(fresh, stale))).thenReturn(List.of());
+
+        List<OwnerItemDto> result = service.findAllForUser(userId);
+
+        assertThat(result, hasSize(2));
+        Mockito.verify(bookingSummary).refresh(Mockito.eq(List.of(stale)), Mockito.any(LocalDateTime.class));
+    }
+
+    @Test
+    void findAllForUser_shouldSkipBookingQueries_whenUserHasNoItems() {
+        Mockito.when(itemRepository.findAllByOwnerId(1L)).thenReturn(List.of());
+
+        List<OwnerItemDto> result = service.findAllForUser(1L);
+
+        assertThat(result, empty());
+        Mockito.verifyNoInteractions(bookingRepository, commentRepository);
     }
 
     @Test
@@ -97,7 +157,6 @@ class ItemServiceImplTest {
         Item item = new Item();
         item.setId(10L);
         item.setOwner(owner);
-        item.setBookings(List.of());
         item.setComments(List.of());
 
         Mockito.when(itemRepository.findByIdWithRelations(10L))
@@ -143,8 +202,10 @@ class ItemServiceImplTest {
         dto.setDescription("desc");
         dto.setAvailable(true);
 
-        Mockito.when(userRepository.findById(userId))
-                .thenReturn(Optional.of(owner));
+        Mockito.when(userCache.find(userId))
+                .thenReturn(Optional.of(UserMapper.mapToUserDto(owner)));
+        Mockito.when(userRepository.getReferenceById(userId))
+                .thenReturn(owner);
 
         Mockito.when(itemRepository.save(Mockito.any(Item.class)))
                 .thenAnswer(invocation -> {
@@ -157,8 +218,10 @@ class ItemServiceImplTest {
 
         assertThat(result.getId(), is(10L));
         assertThat(result.getName(), is("item"));
-        Mockito.verify(userRepository).findById(userId);
+        Mockito.verify(userCache).find(userId);
         Mockito.verify(itemRepository).save(Mockito.any(Item.class));
+        Mockito.verify(searcher).index(Mockito.any(Item.class));
+        Mockito.verifyNoInteractions(requestFeed);
     }
 
     @Test
@@ -178,8 +241,10 @@ class ItemServiceImplTest {
         dto.setAvailable(true);
         dto.setRequestId(requestId);
 
-        Mockito.when(userRepository.findById(userId))
-                .thenReturn(Optional.of(owner));
+        Mockito.when(userCache.find(userId))
+                .thenReturn(Optional.of(UserMapper.mapToUserDto(owner)));
+        Mockito.when(userRepository.getReferenceById(userId))
+                .thenReturn(owner);
         Mockito.when(requestRepository.findById(requestId))
                 .thenReturn(Optional.of(request));
 
@@ -196,6 +261,7 @@ class ItemServiceImplTest {
         assertThat(result.getRequestId(), is(requestId));
         Mockito.verify(requestRepository).findById(requestId);
         Mockito.verify(itemRepository).save(Mockito.any(Item.class));
+        Mockito.verify(requestFeed).itemAnswered(userId, result);
     }
 
 
@@ -213,8 +279,10 @@ class ItemServiceImplTest {
         dto.setAvailable(true);
         dto.setRequestId(requestId);
 
-        Mockito.when(userRepository.findById(userId))
-                .thenReturn(Optional.of(owner));
+        Mockito.when(userCache.find(userId))
+                .thenReturn(Optional.of(UserMapper.mapToUserDto(owner)));
+        Mockito.when(userRepository.getReferenceById(userId))
+                .thenReturn(owner);
         Mockito.when(requestRepository.findById(requestId))
                 .thenReturn(Optional.empty());
 
@@ -231,7 +299,7 @@ class ItemServiceImplTest {
     void update_shouldReturnUpdatedItemDto() {
         long userId = 1L;
 
-        Mockito.when(userRepository.existsById(userId)).thenReturn(true);
+        Mockito.when(userCache.find(userId)).thenReturn(Optional.of(new UserDto(userId, "oleg", "oleg@mail.ru")));
 
         User owner = new User("oleg", "oleg@mail.ru");
         owner.setId(userId);
@@ -263,7 +331,7 @@ class ItemServiceImplTest {
     void update_shouldThrow_NotFound_whenUserMissing() {
         long userId = 1L;
 
-        Mockito.when(userRepository.existsById(userId)).thenReturn(false);
+        Mockito.when(userCache.find(userId)).thenReturn(Optional.empty());
 
         ItemDto dto = new ItemDto();
         dto.setId(10L);
@@ -281,7 +349,7 @@ class ItemServiceImplTest {
     void update_shouldThrow_InvalidOperation_whenNotOwner() {
         long userId = 2L;
 
-        Mockito.when(userRepository.existsById(userId)).thenReturn(true);
+        Mockito.when(userCache.find(userId)).thenReturn(Optional.of(new UserDto(userId, "oleg", "oleg@mail.ru")));
 
         User owner = new User("oleg", "oleg@mail.ru");
         owner.setId(1L);
@@ -322,6 +390,7 @@ class ItemServiceImplTest {
         service.delete(userId, 10L);
 
         Mockito.verify(itemRepository).delete(item);
+        Mockito.verify(searcher).remove(10L);
     }
 
     @Test
@@ -355,14 +424,62 @@ class ItemServiceImplTest {
         item.setDescription("desc");
         item.setAvailable(true);
 
-        Mockito.when(itemRepository.search("text"))
+        Mockito.when(searcher.search("text", OffsetPageRequest.ofOffset(10, 10)))
                 .thenReturn(List.of(item));
 
-        List<ItemDto> result = service.search("text");
+        List<ItemDto> result = service.search("text", null, null, 10, 10);
 
         assertThat(result, hasSize(1));
         assertThat(result.get(0).getId(), is(10L));
-        Mockito.verify(itemRepository).search("text");
+        Mockito.verify(searcher).search("text", OffsetPageRequest.ofOffset(10, 10));
+    }
+
+    @Test
+    void search_shouldClampPageSize() {
+        service.search("text", null, null, 0, 1000);
+
+        Mockito.verify(searcher).search("text", OffsetPageRequest.ofOffset(0, Cursors.MAX_PAGE_SIZE));
+    }
+
+    @Test
+    void search_shouldPassOffset_whenFromNotPageAligned() {
+        service.search("text", null, null, 5, 10);
+
+        Mockito.verify(searcher).search(Mockito.eq("text"),
+                Mockito.argThat(page -> page.getOffset() == 5 && page.getPageSize() == 10));
+    }
+
+    @Test
+    void search_shouldThrow_whenPageParametersInvalid() {
+        assertThrows(ConditionsNotMetException.class, () -> service.search("text", null, null, -1, 10));
+        assertThrows(ConditionsNotMetException.class, () -> service.search("text", null, null, 0, 0));
+        Mockito.verifyNoInteractions(searcher);
+    }
+
+    @Test
+    void search_shouldSearchAvailableItems_whenPeriodGiven() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = start.plusDays(2);
+        Item item = new Item();
+        item.setId(10L);
+        item.setAvailable(true);
+
+        Mockito.when(searcher.searchAvailable("text", start, end, OffsetPageRequest.ofOffset(0, 10)))
+                .thenReturn(List.of(item));
+
+        List<ItemDto> result = service.search("text", start, end, 0, 10);
+
+        assertThat(result.stream().map(ItemDto::getId).toList(), contains(10L));
+        Mockito.verify(searcher, Mockito.never()).search(Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void search_shouldThrow_whenPeriodInvalid() {
+        LocalDateTime start = LocalDateTime.now();
+
+        assertThrows(ConditionsNotMetException.class, () -> service.search("text", start, null, 0, 10));
+        assertThrows(ConditionsNotMetException.class, () -> service.search("text", start, start, 0, 10));
+        Mockito.verifyNoInteractions(searcher);
     }
 
     @Test
@@ -393,8 +510,10 @@ class ItemServiceImplTest {
         saved.setItem(item);
         saved.setCreated(LocalDateTime.now());
 
-        Mockito.when(userRepository.findById(userId))
-                .thenReturn(Optional.of(user));
+        Mockito.when(userCache.find(userId))
+                .thenReturn(Optional.of(UserMapper.mapToUserDto(user)));
+        Mockito.when(userRepository.getReferenceById(userId))
+                .thenReturn(user);
         Mockito.when(itemRepository.findById(itemId))
                 .thenReturn(Optional.of(item));
         Mockito.when(bookingRepository.findBookingsByItemAndBooker(Mockito.eq(item), Mockito.eq(user), Mockito.any(LocalDateTime.class)))
@@ -425,8 +544,10 @@ class ItemServiceImplTest {
         NewCommentDto dto = new NewCommentDto();
         dto.setText("nice");
 
-        Mockito.when(userRepository.findById(userId))
-                .thenReturn(Optional.of(user));
+        Mockito.when(userCache.find(userId))
+                .thenReturn(Optional.of(UserMapper.mapToUserDto(user)));
+        Mockito.when(userRepository.getReferenceById(userId))
+                .thenReturn(user);
         Mockito.when(itemRepository.findById(itemId))
                 .thenReturn(Optional.of(item));
         Mockito.when(bookingRepository.findBookingsByItemAndBooker(Mockito.eq(item), Mockito.eq(user), Mockito.any(LocalDateTime.class)))
@@ -456,7 +577,7 @@ class ItemServiceImplTest {
 
     @Test
     void getUser_shouldThrow_NotFound() {
-        Mockito.when(userRepository.findById(1L))
+        Mockito.when(userCache.find(1L))
                 .thenReturn(Optional.empty());
 
         NotFoundException ex = assertThrows(
@@ -466,4 +587,56 @@ class ItemServiceImplTest {
 
         assertThat(ex.getMessage(), containsString("Пользователь с id = 1 не найден"));
     }
+
+    @Test
+    void findAvailability_shouldMergeOverlappingBookingsAndReturnGaps() {
+        LocalDateTime from = LocalDateTime.now().plusDays(1).withNano(0);
+        LocalDateTime to = from.plusDays(10);
+        ItemOccupancy occupancy = new ItemOccupancy(true, from.minusDays(1), List.of(
+                new BookingInterval(from.minusDays(2), from.plusDays(1)),
+                new BookingInterval(from.plusDays(3), from.plusDays(5)),
+                new BookingInterval(from.plusDays(4), from.plusDays(6)),
+                new BookingInterval(from.plusDays(6), from.plusDays(7)),
+                new BookingInterval(from.plusDays(9), from.plusDays(12))));
+        Mockito.when(occupancyCache.find(10L)).thenReturn(occupancy);
+
+        ItemAvailabilityDto result = service.findAvailability(10L, from, to);
+
+        assertThat(result.isAvailable(), is(true));
+        assertThat(result.getOccupied().stream().map(i -> List.of(i.getStart(), i.getEnd())).toList(), contains(
+                List.of(from, from.plusDays(1)),
+                List.of(from.plusDays(3), from.plusDays(7)),
+                List.of(from.plusDays(9), to)));
+        assertThat(result.getFree().stream().map(i -> List.of(i.getStart(), i.getEnd())).toList(), contains(
+                List.of(from.plusDays(1), from.plusDays(3)),
+                List.of(from.plusDays(7), from.plusDays(9))));
+        Mockito.verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void findAvailability_shouldQueryBookings_whenPeriodStartsBeforeCachedOccupancy() {
+        LocalDateTime from = LocalDateTime.now().minusDays(5).withNano(0);
+        LocalDateTime to = from.plusDays(2);
+        Mockito.when(occupancyCache.find(10L))
+                .thenReturn(new ItemOccupancy(false, LocalDateTime.now(), List.of()));
+        Mockito.when(bookingRepository.findOccupiedIntervals(10L, from, to))
+                .thenReturn(List.of(new BookingInterval(from.plusDays(1), from.plusDays(3))));
+
+        ItemAvailabilityDto result = service.findAvailability(10L, from, to);
+
+        assertThat(result.isAvailable(), is(false));
+        assertThat(result.getOccupied(), hasSize(1));
+        assertThat(result.getOccupied().getFirst().getEnd(), is(to));
+        assertThat(result.getFree(), empty());
+    }
+
+    @Test
+    void findAvailability_shouldThrow_ConditionsNotMet_whenPeriodInvalid() {
+        LocalDateTime from = LocalDateTime.now();
+
+        assertThrows(ConditionsNotMetException.class, () -> service.findAvailability(10L, from, from));
+        assertThrows(ConditionsNotMetException.class,
+                () -> service.findAvailability(10L, from, from.plusDays(400)));
+        Mockito.verifyNoInteractions(occupancyCache);
+    }
 }
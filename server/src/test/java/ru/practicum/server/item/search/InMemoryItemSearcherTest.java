@@ -0,0 +1,142 @@
+package ru.practicum.server.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import ru.practicum.server.item.ItemRepository;
+import ru.practicum.server.item.model.Item;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryItemSearcherTest {
+
+    @Mock
+    private ItemRepository repository;
+
+    private InMemoryItemSearcher searcher;
+
+    private final Item drill = buildItem(1L, "Дрель ударная", "мощная", true);
+    private final Item miniDrill = buildItem(2L, "Мини-дрель", "гравер", true);
+    private final Item brokenDrill = buildItem(3L, "Дрель старая", "сломана", false);
+    private final Item bits = buildItem(4L, "Набор", "биты для дрели", true);
+
+    @BeforeEach
+    void setUp() {
+        Mockito.when(repository.findAllBy(Mockito.any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(drill, miniDrill, brokenDrill, bits)));
+        searcher = new InMemoryItemSearcher(repository);
+        searcher.build();
+    }
+
+    @Test
+    void search_shouldMatchTokenPrefixesAndSkipUnavailableItems() {
+        Mockito.when(repository.findAllById(List.of(1L, 2L, 4L))).thenReturn(List.of(bits, drill, miniDrill));
+
+        List<Item> result = searcher.search("ДРЕЛ", PageRequest.of(0, 10));
+
+        assertThat(result, contains(drill, miniDrill, bits));
+    }
+
+    @Test
+    void search_shouldIntersectQueryTokensAndPage() {
+        Mockito.when(repository.findAllById(List.of(4L))).thenReturn(List.of(bits));
+
+        assertThat(searcher.search("биты дрел", PageRequest.of(0, 10)), contains(bits));
+        assertThat(searcher.search("дрель", PageRequest.of(5, 10)), empty());
+        Mockito.verify(repository).findAllById(Mockito.anyIterable());
+    }
+
+    @Test
+    void search_shouldRankLikeDatabaseSearch() {
+        Item exact = buildItem(5L, "дрель", "простая", true);
+        Item byDescriptionPrefix = buildItem(6L, "Набор", "дрели и биты", true);
+        searcher.index(exact);
+        searcher.index(byDescriptionPrefix);
+        Mockito.when(repository.findAllById(List.of(1L, 5L, 2L, 6L, 4L)))
+                .thenReturn(List.of(bits, byDescriptionPrefix, miniDrill, exact, drill));
+        Mockito.when(repository.findAllById(List.of(5L, 1L, 2L)))
+                .thenReturn(List.of(drill, miniDrill, exact));
+
+        assertThat(searcher.search("дрел", PageRequest.of(0, 10)),
+                contains(drill, exact, miniDrill, byDescriptionPrefix, bits));
+        assertThat(searcher.search("дрель", PageRequest.of(0, 10)), contains(exact, drill, miniDrill));
+    }
+
+    @Test
+    void index_shouldAcceptIdsBeyondIntRange() {
+        Item item = buildItem(Integer.MAX_VALUE + 10L, "Шуруповёрт", "аккумуляторный", true);
+        searcher.index(item);
+        Mockito.when(repository.findAllById(List.of(item.getId()))).thenReturn(List.of(item));
+
+        assertThat(searcher.search("шуруп", PageRequest.of(0, 10)), contains(item));
+    }
+
+    @Test
+    void indexAndRemove_shouldUpdateIndexIncrementally() {
+        Item renamed = buildItem(1L, "Перфоратор", "мощный", true);
+        searcher.index(renamed);
+        searcher.remove(2L);
+        Mockito.when(repository.findAllById(List.of(1L))).thenReturn(List.of(renamed));
+
+        assertThat(searcher.search("перфо", PageRequest.of(0, 10)), contains(renamed));
+        Mockito.when(repository.findAllById(List.of(4L))).thenReturn(List.of(bits));
+        assertThat(searcher.search("дрел", PageRequest.of(0, 10)), contains(bits));
+    }
+
+    @Test
+    void indexAndRemove_shouldApplyOnlyAfterCommit() {
+        Item renamed = buildItem(1L, "Перфоратор", "мощный", true);
+        Mockito.when(repository.findAllById(List.of(1L))).thenReturn(List.of(renamed));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            searcher.index(renamed);
+            assertThat(searcher.search("перфо", PageRequest.of(0, 10)), empty());
+            TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                    TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(searcher.search("перфо", PageRequest.of(0, 10)), empty());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            searcher.index(renamed);
+            TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(searcher.search("перфо", PageRequest.of(0, 10)), contains(renamed));
+    }
+
+    @Test
+    void removeOwnedBy_shouldDropOwnerItems() {
+        Mockito.when(repository.findIdsByOwnerId(7L)).thenReturn(List.of(1L, 2L));
+        Mockito.when(repository.findAllById(List.of(4L))).thenReturn(List.of(bits));
+
+        searcher.removeOwnedBy(7L);
+
+        assertThat(searcher.search("дрел", PageRequest.of(0, 10)), contains(bits));
+    }
+
+    private static Item buildItem(long id, String name, String description, boolean available) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(available);
+        return item;
+    }
+}
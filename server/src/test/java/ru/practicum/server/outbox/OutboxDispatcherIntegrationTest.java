@@ -0,0 +1,78 @@
+package ru.practicum.server.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.dto.booking.BookingDto;
+import ru.practicum.dto.booking.ResponseBookingDto;
+import ru.practicum.dto.item.ItemDto;
+import ru.practicum.dto.user.UserDto;
+import ru.practicum.server.booking.BookingEvent;
+import ru.practicum.server.booking.BookingService;
+import ru.practicum.server.booking.BookingStatus;
+import ru.practicum.server.item.ItemService;
+import ru.practicum.server.user.UserService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@SpringBootTest
+@Transactional
+@RecordApplicationEvents
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class OutboxDispatcherIntegrationTest {
+
+    private final BookingService bookingService;
+    private final UserService userService;
+    private final ItemService itemService;
+    private final OutboxRepository outboxRepository;
+    private final OutboxDispatcher dispatcher;
+    private final ObjectMapper objectMapper;
+
+    @Test
+    void dispatch_shouldPublishBookingEventsInOrderAndClearOutbox(ApplicationEvents events) throws Exception {
+        UserDto owner = createUser("owner", "outbox-owner@mail.ru");
+        UserDto booker = createUser("booker", "outbox-booker@mail.ru");
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Дрель");
+        itemDto.setDescription("Ударная");
+        itemDto.setAvailable(true);
+        ItemDto item = itemService.create(owner.getId(), itemDto);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        ResponseBookingDto created = bookingService.create(booker.getId(),
+                new BookingDto(null, start, start.plusHours(1), item.getId()));
+        bookingService.approve(owner.getId(), created.getId(), false);
+
+        assertThat(outboxRepository.count(), equalTo(2L));
+        assertThat(events.stream(OutboxEvent.class).count(), equalTo(0L));
+
+        dispatcher.dispatch();
+
+        List<OutboxEvent> published = events.stream(OutboxEvent.class).toList();
+        assertThat(published.stream().map(OutboxEvent::getType).toList(),
+                contains(BookingEvent.CREATED, BookingEvent.REJECTED));
+        assertThat(published.stream().map(OutboxEvent::getAggregateId).toList(),
+                everyItem(equalTo(created.getId())));
+        BookingEvent rejected = objectMapper.readValue(published.get(1).getPayload(), BookingEvent.class);
+        assertThat(rejected.itemId(), equalTo(item.getId()));
+        assertThat(rejected.bookerId(), equalTo(booker.getId()));
+        assertThat(rejected.status(), equalTo(BookingStatus.REJECTED));
+        assertThat(outboxRepository.count(), equalTo(0L));
+    }
+
+    private UserDto createUser(String name, String email) {
+        UserDto dto = new UserDto();
+        dto.setName(name);
+        dto.setEmail(email);
+        return userService.create(dto);
+    }
+}
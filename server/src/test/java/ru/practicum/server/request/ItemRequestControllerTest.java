@@ -5,25 +5,38 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.dto.item.ItemDto;
 import ru.practicum.dto.request.ItemRequestDto;
 import ru.practicum.dto.request.NewRequestDto;
-import ru.practicum.dto.request.ShortItemRequest;
+import ru.practicum.server.pagination.Cursors;
 
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = ItemRequestController.class)
+@Import(ItemRequestFeed.class)
 class ItemRequestControllerTest {
 
     @Autowired
@@ -32,6 +45,9 @@ class ItemRequestControllerTest {
     @MockBean
     private ItemRequestService itemRequestService;
 
+    @Autowired
+    private ItemRequestFeed feed;
+
     @Autowired
     private MockMvc mvc;
 
@@ -77,8 +93,8 @@ class ItemRequestControllerTest {
                 .items(List.of())
                 .build();
 
-        when(itemRequestService.findUserRequests(anyLong()))
-                .thenReturn(List.of(r1, r2));
+        when(itemRequestService.findUserRequests(anyLong(), any(), anyInt()))
+                .thenReturn(new ItemRequestPage(List.of(r1, r2), null));
 
         mvc.perform(get("/requests")
                         .header("X-Sharer-User-Id", 1L)
@@ -93,31 +109,29 @@ class ItemRequestControllerTest {
     }
 
     @Test
-    void findAllItemRequests_shouldReturnListOfShortRequests() throws Exception {
-        ShortItemRequest s1 = new ShortItemRequest() {
-            @Override
-            public String getDescription() {
-                return "нужна дрель";
-            }
-        };
-        ShortItemRequest s2 = new ShortItemRequest() {
-            @Override
-            public String getDescription() {
-                return "нужен молоток";
-            }
-        };
-
-        when(itemRequestService.findAllRequests(anyLong()))
-                .thenReturn(List.of(s1, s2));
+    void findAllItemRequests_shouldReturnPageWithNextCursor() throws Exception {
+        ItemRequestDto r1 = ItemRequestDto.builder()
+                .id(3L)
+                .description("нужна дрель")
+                .created(Instant.now())
+                .items(List.of())
+                .build();
+
+        when(itemRequestService.findAllRequests(1L, "cursor", 1))
+                .thenReturn(new ItemRequestPage(List.of(r1), "next"));
 
         mvc.perform(get("/requests/all")
                         .header("X-Sharer-User-Id", 1L)
+                        .param("from", "cursor")
+                        .param("size", "1")
                         .characterEncoding(StandardCharsets.UTF_8)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(header().string(Cursors.NEXT_CURSOR_HEADER, "next"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(r1.getId()), Long.class))
                 .andExpect(jsonPath("$[0].description", is("нужна дрель")))
-                .andExpect(jsonPath("$[1].description", is("нужен молоток")));
+                .andExpect(jsonPath("$[0].items", hasSize(0)));
     }
 
     @Test
@@ -139,4 +153,92 @@ class ItemRequestControllerTest {
                 .andExpect(jsonPath("$.id", is(response.getId()), Long.class))
                 .andExpect(jsonPath("$.description", is(response.getDescription())));
     }
+
+    @Test
+    void stream_shouldSendRequestsAndAnswersOfOtherUsers() throws Exception {
+        MvcResult result = mvc.perform(get("/requests/stream")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        feed.requestCreated(1L, requestDto(100L));
+        feed.requestCreated(2L, requestDto(101L));
+        feed.itemAnswered(3L, answer(200L, 101L));
+
+        String events = awaitEvents(result, 2);
+        assertThat(result.getResponse().getContentType(), containsString(MediaType.TEXT_EVENT_STREAM_VALUE));
+        assertThat(events, containsString("event:" + ItemRequestFeed.REQUEST_CREATED));
+        assertThat(events, containsString("\"id\":101"));
+        assertThat(events, containsString("event:" + ItemRequestFeed.ITEM_ANSWERED));
+        assertThat(events, containsString("\"requestId\":101"));
+        assertThat(events, not(containsString("\"id\":100")));
+    }
+
+    @Test
+    void stream_shouldResumeAfterLastEventId() throws Exception {
+        MvcResult first = mvc.perform(get("/requests/stream")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        feed.requestCreated(2L, requestDto(110L));
+        feed.requestCreated(2L, requestDto(111L));
+        feed.requestCreated(2L, requestDto(112L));
+        List<String> ids = eventIds(awaitEvents(first, 3));
+
+        MvcResult resumed = mvc.perform(get("/requests/stream")
+                        .header("X-Sharer-User-Id", 1L)
+                        .header("Last-Event-ID", ids.get(0)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        assertThat(eventIds(awaitEvents(resumed, 2)), contains(ids.get(1), ids.get(2)));
+    }
+
+    @Test
+    void stream_shouldAskToResync_whenLastEventIdUnknown() throws Exception {
+        MvcResult result = mvc.perform(get("/requests/stream")
+                        .header("X-Sharer-User-Id", 1L)
+                        .header("Last-Event-ID", "restarted:42"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        assertThat(awaitEvents(result, 1), containsString("event:" + ItemRequestFeed.RESYNC));
+    }
+
+    private static ItemRequestDto requestDto(long id) {
+        return ItemRequestDto.builder()
+                .id(id)
+                .description("нужна дрель")
+                .created(Instant.now())
+                .items(List.of())
+                .build();
+    }
+
+    private static ItemDto answer(long id, long requestId) {
+        ItemDto item = new ItemDto();
+        item.setId(id);
+        item.setName("Дрель");
+        item.setAvailable(true);
+        item.setRequestId(requestId);
+        return item;
+    }
+
+    /**
+     * События отправляются отдельным потоком и пишутся по частям, поэтому тело ответа дочитывается
+     * до нужного числа завершённых событий (данные JSON и пустая строка).
+     */
+    private static String awaitEvents(MvcResult result, int count) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        String content = result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+        while (content.split("}\n\n", -1).length - 1 < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            content = result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+        }
+        return content;
+    }
+
+    private static List<String> eventIds(String events) {
+        Matcher matcher = Pattern.compile("^id:(.+)$", Pattern.MULTILINE).matcher(events);
+        return matcher.results().map(match -> match.group(1)).toList();
+    }
 }
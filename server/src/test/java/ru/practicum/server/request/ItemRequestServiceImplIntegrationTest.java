@@ -1,15 +1,19 @@
 package ru.practicum.server.request;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.dto.item.ItemDto;
 import ru.practicum.dto.request.ItemRequestDto;
 import ru.practicum.dto.request.NewRequestDto;
 import ru.practicum.dto.user.UserDto;
+import ru.practicum.server.item.ItemService;
 import ru.practicum.server.user.UserService;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -22,6 +26,9 @@ class ItemRequestServiceImplIntegrationTest {
 
     private final ItemRequestService itemRequestService;
     private final UserService userService;
+    private final ItemService itemService;
+    private final ItemRequestRepository requestRepository;
+    private final EntityManager em;
 
     @Test
     void findUserRequests_shouldReturnRequestsForUserOrderedByCreatedDesc() {
@@ -38,7 +45,7 @@ class ItemRequestServiceImplIntegrationTest {
         r2.setDescription("нужен молоток");
         ItemRequestDto saved2 = itemRequestService.create(user.getId(), r2);
 
-        List<ItemRequestDto> result = itemRequestService.findUserRequests(user.getId());
+        List<ItemRequestDto> result = itemRequestService.findUserRequests(user.getId(), null, 20).getRequests();
 
         assertThat(result, hasSize(2));
         assertThat(result.get(0).getId(), is(saved2.getId()));
@@ -46,4 +53,52 @@ class ItemRequestServiceImplIntegrationTest {
         assertThat(result.get(1).getId(), is(saved1.getId()));
         assertThat(result.get(1).getDescription(), is("нужна дрель"));
     }
+
+    @Test
+    void findAllRequests_shouldPageOtherUsersRequestsWithItemAnswers() {
+        UserDto requester = createUser("requester", "feed-requester@mail.ru");
+        UserDto reader = createUser("reader", "feed-reader@mail.ru");
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            NewRequestDto dto = new NewRequestDto();
+            dto.setDescription("запрос " + i);
+            ids.add(itemRequestService.create(requester.getId(), dto).getId());
+        }
+        // у двух запросов одинаковое время создания, порядок между ними задаёт id
+        ItemRequest first = requestRepository.findById(ids.get(0)).orElseThrow();
+        requestRepository.findById(ids.get(1)).orElseThrow().setCreated(first.getCreated());
+        ItemDto answer = new ItemDto();
+        answer.setName("Дрель");
+        answer.setDescription("Ударная");
+        answer.setAvailable(true);
+        answer.setRequestId(ids.get(4));
+        long answerId = itemService.create(reader.getId(), answer).getId();
+        // курсор строится по значениям из базы, как при чтении в отдельной транзакции
+        em.flush();
+        em.clear();
+
+        List<ItemRequestDto> feed = new ArrayList<>();
+        String from = null;
+        int pages = 0;
+        do {
+            ItemRequestPage page = itemRequestService.findAllRequests(reader.getId(), from, 2);
+            feed.addAll(page.getRequests());
+            from = page.getNext();
+            pages++;
+        } while (from != null);
+
+        assertThat(pages, is(3));
+        assertThat(feed.stream().map(ItemRequestDto::getId).toList(),
+                contains(ids.get(4), ids.get(3), ids.get(2), ids.get(1), ids.get(0)));
+        assertThat(feed.get(0).getItems().stream().map(ItemDto::getId).toList(), contains(answerId));
+        assertThat(feed.get(1).getItems(), empty());
+        assertThat(itemRequestService.findAllRequests(requester.getId(), null, 10).getRequests(), empty());
+    }
+
+    private UserDto createUser(String name, String email) {
+        UserDto dto = new UserDto();
+        dto.setName(name);
+        dto.setEmail(email);
+        return userService.create(dto);
+    }
 }
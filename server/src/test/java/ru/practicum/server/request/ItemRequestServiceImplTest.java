@@ -6,10 +6,16 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import ru.practicum.dto.request.ItemRequestDto;
 import ru.practicum.dto.request.NewRequestDto;
-import ru.practicum.dto.request.ShortItemRequest;
+import ru.practicum.server.exceptions.ConditionsNotMetException;
 import ru.practicum.server.exceptions.NotFoundException;
+import ru.practicum.server.item.ItemRepository;
+import ru.practicum.server.item.model.Item;
 import ru.practicum.server.user.User;
 import ru.practicum.server.user.UserRepository;
 
@@ -30,6 +36,12 @@ class ItemRequestServiceImplTest {
     @Mock
     private ItemRequestRepository requestRepository;
 
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private ItemRequestFeed feed;
+
     @InjectMocks
     private ItemRequestServiceImpl service;
 
@@ -61,6 +73,7 @@ class ItemRequestServiceImplTest {
         assertThat(result.getCreated(), notNullValue());
         Mockito.verify(userRepository).findById(userId);
         Mockito.verify(requestRepository).save(Mockito.any(ItemRequest.class));
+        Mockito.verify(feed).requestCreated(userId, result);
     }
 
     @Test
@@ -82,7 +95,7 @@ class ItemRequestServiceImplTest {
     }
 
     @Test
-    void findUserRequests_shouldReturnMappedDtos() {
+    void findUserRequests_shouldReturnPageWithItemsFromOneQuery() {
         long userId = 1L;
 
         User user = new User("oleg", "oleg@mail.ru");
@@ -100,36 +113,54 @@ class ItemRequestServiceImplTest {
         r2.setUser(user);
         r2.setCreated(Instant.now().minusSeconds(3600));
 
-        Mockito.when(requestRepository.findAllByUserIdOrderByCreatedDesc(userId))
-                .thenReturn(List.of(r1, r2));
-
-        List<ItemRequestDto> result = service.findUserRequests(userId);
-
-        assertThat(result, hasSize(2));
-        assertThat(result.get(0).getId(), is(10L));
-        assertThat(result.get(1).getId(), is(11L));
-        Mockito.verify(requestRepository).findAllByUserIdOrderByCreatedDesc(userId);
+        Item drill = new Item();
+        drill.setId(20L);
+        drill.setName("Дрель");
+        drill.setRequest(r1);
+        drill.setComments(List.of());
+
+        Mockito.when(requestRepository.findAllByUserId(Mockito.eq(userId), Mockito.any(ScrollPosition.class),
+                        Mockito.eq(Limit.of(2)), Mockito.any(Sort.class)))
+                .thenReturn(Window.from(List.of(r1, r2), index -> ScrollPosition.keyset()));
+        Mockito.when(itemRepository.findAllByRequestIdIn(List.of(10L, 11L)))
+                .thenReturn(List.of(drill));
+
+        ItemRequestPage result = service.findUserRequests(userId, null, 2);
+
+        assertThat(result.getRequests(), hasSize(2));
+        assertThat(result.getRequests().get(0).getId(), is(10L));
+        assertThat(result.getRequests().get(0).getItems(), hasSize(1));
+        assertThat(result.getRequests().get(0).getItems().get(0).getRequestId(), is(10L));
+        assertThat(result.getRequests().get(1).getId(), is(11L));
+        assertThat(result.getRequests().get(1).getItems(), empty());
+        assertThat(result.getNext(), nullValue());
     }
 
     @Test
-    void findAllRequests_shouldReturnShortRequests() {
+    void findAllRequests_shouldNotQueryItemsForEmptyPage() {
         long userId = 1L;
 
-        ShortItemRequest r1 = Mockito.mock(ShortItemRequest.class);
-        ShortItemRequest r2 = Mockito.mock(ShortItemRequest.class);
+        Mockito.when(requestRepository.findAllByUserIdNot(Mockito.eq(userId), Mockito.any(ScrollPosition.class),
+                        Mockito.eq(Limit.of(20)), Mockito.any(Sort.class)))
+                .thenReturn(Window.from(List.of(), index -> ScrollPosition.keyset()));
 
-        Mockito.when(r1.getDescription()).thenReturn("нужна дрель");
-        Mockito.when(r2.getDescription()).thenReturn("нужен молоток");
+        ItemRequestPage result = service.findAllRequests(userId, null, 20);
 
-        Mockito.when(requestRepository.findAllByUserIdNotOrderByCreatedDesc(userId))
-                .thenReturn(List.of(r1, r2));
+        assertThat(result.getRequests(), empty());
+        assertThat(result.getNext(), nullValue());
+        Mockito.verifyNoInteractions(itemRepository);
+    }
 
-        List<ShortItemRequest> result = service.findAllRequests(userId);
+    @Test
+    void findAllRequests_shouldThrow_whenSizeNotPositive() {
+        assertThrows(ConditionsNotMetException.class, () -> service.findAllRequests(1L, null, 0));
+        Mockito.verifyNoInteractions(requestRepository);
+    }
 
-        assertThat(result, hasSize(2));
-        assertThat(result.get(0).getDescription(), is("нужна дрель"));
-        assertThat(result.get(1).getDescription(), is("нужен молоток"));
-        Mockito.verify(requestRepository).findAllByUserIdNotOrderByCreatedDesc(userId);
+    @Test
+    void findAllRequests_shouldThrow_whenSizeTooLarge() {
+        assertThrows(ConditionsNotMetException.class, () -> service.findAllRequests(1L, null, 1_000_000));
+        Mockito.verifyNoInteractions(requestRepository, itemRepository);
     }
 
     @Test
@@ -6,12 +6,18 @@ import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.dto.user.UserDto;
 
+import java.util.Optional;
+
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 
 @SpringBootTest
 @Transactional
@@ -20,6 +26,8 @@ public class UserServiceImplIntegrationTest {
 
     private final EntityManager em;
     private final UserService userService;
+    private final UserCache userCache;
+    private final CacheManager cacheManager;
 
     @Test
     void testCreate() {
@@ -37,4 +45,22 @@ public class UserServiceImplIntegrationTest {
         assertThat(user.getEmail(), equalTo(userDto.getEmail()));
     }
 
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void userCache_shouldBeRefreshedOnUpdateAndEvictedOnDelete() {
+        UserDto created = userService.create(new UserDto(null, "Cached", "cached@mail.ru"));
+        long userId = created.getId();
+        Cache cache = cacheManager.getCache(UserCache.USERS);
+
+        assertThat(userCache.find(userId).map(UserDto::getName), equalTo(Optional.of("Cached")));
+        assertThat(cache.get(userId), notNullValue());
+
+        userService.update(userId, new UserDto(null, "Renamed", null));
+        assertThat(userCache.find(userId).map(UserDto::getName), equalTo(Optional.of("Renamed")));
+
+        userService.delete(userId);
+        assertThat(cache.get(userId), nullValue());
+        assertThat(userCache.find(userId), equalTo(Optional.empty()));
+        assertThat(cache.get(userId), nullValue());
+    }
 }
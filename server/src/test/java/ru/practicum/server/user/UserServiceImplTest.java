@@ -9,7 +9,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.dto.user.UserDto;
 import ru.practicum.server.exceptions.ConditionsNotMetException;
 import ru.practicum.server.exceptions.NotFoundException;
+import ru.practicum.server.item.ItemRepository;
+import ru.practicum.server.item.search.ItemSearcher;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +26,12 @@ class UserServiceImplTest {
     @Mock
     private UserRepository repository;
 
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private ItemSearcher searcher;
+
     @InjectMocks
     private UserServiceImpl service;
 
@@ -143,6 +152,8 @@ class UserServiceImplTest {
         service.delete(1L);
 
         Mockito.verify(repository).findById(1L);
+        Mockito.verify(itemRepository).markBookingSummariesStale(Mockito.eq(1L), Mockito.any(LocalDateTime.class));
+        Mockito.verify(searcher).removeOwnedBy(1L);
         Mockito.verify(repository).delete(Mockito.any(User.class));
     }
 